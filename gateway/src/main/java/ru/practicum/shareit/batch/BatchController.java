@@ -0,0 +1,52 @@
+package ru.practicum.shareit.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.context.request.async.DeferredResult;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.exceptions.BatchTooLargeException;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import java.util.List;
+
+import static java.lang.String.format;
+
+@Controller
+@RequestMapping(path = "/batch")
+@Slf4j
+@Validated
+public class BatchController {
+    private final BatchDispatcher batchDispatcher;
+    private final int maxSize;
+
+    @Autowired
+    public BatchController(BatchDispatcher batchDispatcher,
+                           @Value("${shareit-gateway.batch.max-size:20}") int maxSize) {
+        this.batchDispatcher = batchDispatcher;
+        this.maxSize = maxSize;
+    }
+
+    @PostMapping
+    public ResponseEntity<Object> executeBatch(@RequestHeader(value = "X-Sharer-User-Id", required = false) Long userId,
+                                               @NotEmpty @RequestBody List<@Valid BatchRequestDto> requests) {
+        log.info("Executing a batch of {} requests for user with userId={}", requests.size(), userId);
+        if (requests.size() > maxSize) {
+            throw new BatchTooLargeException(format("Batch of %s requests exceeds the limit of %s", requests.size(), maxSize));
+        }
+
+        DeferredResult<ResponseEntity<Object>> deferredResponse = new DeferredResult<>();
+        batchDispatcher.dispatch(requests, userId)
+                       .subscribe(responses -> deferredResponse.setResult(ResponseEntity.ok(responses)),
+                               deferredResponse::setErrorResult);
+        return ResponseEntity.ok(deferredResponse);
+    }
+}
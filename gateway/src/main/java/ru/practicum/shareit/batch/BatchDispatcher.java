@@ -0,0 +1,159 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.context.WebServerInitializedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Replays each sub-request of a batch against the gateway itself, so it passes the same controller validation,
+ * rate limits, response cache and server transport as a standalone call. Sub-requests run concurrently and
+ * their results are returned in the order of the batch. Only paths under the item, booking, user and request APIs
+ * are replayed; anything that normalizes elsewhere, including {@code /batch} itself, is answered with 400.
+ */
+@Slf4j
+@Component
+public class BatchDispatcher {
+    private static final Set<String> API_ROOTS = Set.of("items", "bookings", "users", "requests");
+
+    private final WebClient webClient;
+    private final ObjectMapper objectMapper;
+    private final int concurrency;
+    private volatile String gatewayUrl;
+
+    @Autowired
+    public BatchDispatcher(ObjectProvider<WebClient.Builder> webClientBuilder,
+                           ObjectMapper objectMapper,
+                           @Value("${shareit-gateway.batch.concurrency:8}") int concurrency) {
+        this.webClient = webClientBuilder.getObject().build();
+        this.objectMapper = objectMapper;
+        this.concurrency = concurrency;
+    }
+
+    @EventListener
+    public void onWebServerInitialized(WebServerInitializedEvent event) {
+        Environment environment = event.getApplicationContext().getEnvironment();
+        String scheme = environment.getProperty("server.ssl.enabled", Boolean.class, false) ? "https" : "http";
+        String contextPath = environment.getProperty("server.servlet.context-path", "");
+        gatewayUrl = scheme + "://" + host(environment.getProperty("server.address")) + ":"
+                + event.getWebServer().getPort() + contextPath;
+    }
+
+    public Mono<List<BatchResponseDto>> dispatch(List<BatchRequestDto> requests, Long userId) {
+        return Flux.fromIterable(requests)
+                   .flatMapSequential(request -> dispatch(request, userId), concurrency)
+                   .collectList();
+    }
+
+    private Mono<BatchResponseDto> dispatch(BatchRequestDto request, Long userId) {
+        if (!isApiPath(request.getPath())) {
+            return Mono.just(BatchResponseDto.builder()
+                                             .withStatus(HttpStatus.BAD_REQUEST.value())
+                                             .withBody(Map.of("error", "Path " + request.getPath() + " is not allowed in a batch"))
+                                             .build());
+        }
+        return Mono.defer(() -> {
+                       WebClient.RequestBodySpec spec = webClient.method(request.getMethod())
+                                                                 .uri(URI.create(gatewayUrl + request.getPath()))
+                                                                 .accept(MediaType.APPLICATION_JSON)
+                                                                 .headers(headers -> {
+                                                                     if (userId != null) {
+                                                                         headers.set("X-Sharer-User-Id", String.valueOf(userId));
+                                                                     }
+                                                                 });
+                       if (request.getBody() != null) {
+                           spec.contentType(MediaType.APPLICATION_JSON)
+                               .bodyValue(request.getBody());
+                       }
+                       return spec.exchangeToMono(response -> response.toEntity(byte[].class));
+                   })
+                   .map(this::toBatchResponse)
+                   .onErrorResume(e -> {
+                       log.warn("Batch sub-request {} {} failed: {}", request.getMethod(), request.getPath(), e.getMessage());
+                       return Mono.just(BatchResponseDto.builder()
+                                                        .withStatus(HttpStatus.BAD_GATEWAY.value())
+                                                        .withBody(Map.of("error", String.valueOf(e.getMessage())))
+                                                        .build());
+                   });
+    }
+
+    static boolean isApiPath(String path) {
+        URI uri;
+        try {
+            uri = new URI(path);
+        } catch (URISyntaxException e) {
+            return false;
+        }
+        if (uri.isAbsolute() || uri.getRawAuthority() != null || uri.getRawPath() == null
+                || !uri.getRawPath().equals(uri.normalize().getRawPath())) {
+            return false;
+        }
+        String[] segments = uri.getRawPath().split("/");
+        return segments.length > 1 && segments[0].isEmpty() && API_ROOTS.contains(segments[1]);
+    }
+
+    /**
+     * Host the gateway listens on: the configured address unless it is a wildcard, otherwise the loopback.
+     */
+    private static String host(String address) {
+        if (address == null || address.isBlank()) {
+            return "localhost";
+        }
+        try {
+            InetAddress inetAddress = InetAddress.getByName(address);
+            if (inetAddress.isAnyLocalAddress()) {
+                return "localhost";
+            }
+            String hostAddress = inetAddress.getHostAddress();
+            return hostAddress.contains(":") ? "[" + hostAddress.replace("%", "%25") + "]" : hostAddress;
+        } catch (UnknownHostException e) {
+            return address;
+        }
+    }
+
+    private BatchResponseDto toBatchResponse(ResponseEntity<byte[]> response) {
+        return BatchResponseDto.builder()
+                               .withStatus(response.getStatusCodeValue())
+                               .withBody(readBody(response))
+                               .build();
+    }
+
+    private Object readBody(ResponseEntity<byte[]> response) {
+        byte[] body = response.getBody();
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        MediaType contentType = response.getHeaders().getContentType();
+        if (contentType != null && contentType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+            try {
+                return objectMapper.readTree(body);
+            } catch (IOException e) {
+                log.warn("Batch sub-response is not valid JSON: {}", e.getMessage());
+            }
+        }
+        return new String(body, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.batch.dto;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.http.HttpMethod;
+
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+
+@Data
+@Builder(setterPrefix = "with")
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchRequestDto {
+    @NotNull
+    private HttpMethod method;
+    /**
+     * Path segments are limited to word characters and hyphens, so no dot segment or encoded character can
+     * move the path out of the API once the server normalizes it.
+     */
+    @NotNull
+    @Pattern(regexp = "/(items|bookings|users|requests)(/[\\w\\-]+)*/?(\\?[\\w\\-.=&%+]*)?",
+            message = "must be a path of the items, bookings, users or requests API")
+    private String path;
+    private JsonNode body;
+}
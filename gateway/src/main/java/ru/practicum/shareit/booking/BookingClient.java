@@ -1,16 +1,14 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ServerTransportFactory;
 
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -18,30 +16,42 @@ public class BookingClient extends BaseClient {
     private static final String API_PREFIX = "/bookings";
 
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public BookingClient(ServerTransportFactory transportFactory) {
+        super(transportFactory.create(API_PREFIX));
     }
 
     public ResponseEntity<Object> approveOrRejectBooking(long bookingId, boolean approved, long userId) {
         return patch("/" + bookingId + "?approved=" + approved, userId);
     }
 
+    public ResponseEntity<Object> approveOrRejectBookings(List<Long> bookingIds, boolean approved, long userId) {
+        return patch("?approved=" + approved, userId, bookingIds);
+    }
+
     public ResponseEntity<Object> getBookingById(long userId, Long bookingId) {
         return get("/" + bookingId, userId);
     }
 
-    public ResponseEntity<Object> getBookingsByBooker(long userId, BookingState state, Integer from, Integer size) {
+    public ResponseEntity<Object> getBookingsByBooker(long userId, BookingState state, Integer from, Integer size,
+                                                  boolean withTotal) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
-                "size", size
+                "size", size,
+                "withTotal", withTotal
         );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return get("?state={state}&from={from}&size={size}&withTotal={withTotal}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getBookingsByBooker(long userId, BookingState state, String after, Integer size,
+                                                  boolean withTotal) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "after", after,
+                "size", size,
+                "withTotal", withTotal
+        );
+        return get("?state={state}&after={after}&size={size}&withTotal={withTotal}", userId, parameters);
     }
 
     public ResponseEntity<Object> getBookingsByBooker(long userId, BookingState state) {
@@ -51,13 +61,26 @@ public class BookingClient extends BaseClient {
         return get("?state={state}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingsByOwner(long userId, BookingState state, Integer from, Integer size) {
+    public ResponseEntity<Object> getBookingsByOwner(long userId, BookingState state, Integer from, Integer size,
+                                                  boolean withTotal) {
         Map<String, Object> parameters = Map.of(
                 "state", state.name(),
                 "from", from,
-                "size", size
+                "size", size,
+                "withTotal", withTotal
+        );
+        return get("/owner?state={state}&from={from}&size={size}&withTotal={withTotal}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getBookingsByOwner(long userId, BookingState state, String after, Integer size,
+                                                  boolean withTotal) {
+        Map<String, Object> parameters = Map.of(
+                "state", state.name(),
+                "after", after,
+                "size", size,
+                "withTotal", withTotal
         );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        return get("/owner?state={state}&after={after}&size={size}&withTotal={withTotal}", userId, parameters);
     }
 
     public ResponseEntity<Object> getBookingsByOwner(long userId, BookingState state) {
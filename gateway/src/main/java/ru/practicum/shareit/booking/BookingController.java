@@ -12,8 +12,11 @@ import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.exceptions.UnsupportedStateException;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -30,6 +33,14 @@ public class BookingController {
         return bookingClient.approveOrRejectBooking(bookingId, approved, userId);
     }
 
+    @PatchMapping
+    public ResponseEntity<Object> approveOrRejectBookings(@RequestBody @NotEmpty List<@NotNull Long> bookingIds,
+                                                          @RequestParam boolean approved,
+                                                          @RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Decide on bookings {}, approved={}, userId={}", bookingIds, approved, userId);
+        return bookingClient.approveOrRejectBookings(bookingIds, approved, userId);
+    }
+
     @GetMapping("/{bookingId}")
     public ResponseEntity<Object> getBookingById(@RequestHeader("X-Sharer-User-Id") long userId,
                                                  @PathVariable long bookingId) {
@@ -41,12 +52,16 @@ public class BookingController {
     public ResponseEntity<Object> getAllBookingsByBooker(@RequestHeader("X-Sharer-User-Id") long userId,
                                                          @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                                          @PositiveOrZero @RequestParam(name = "from", required = false) Integer from,
-                                                         @Positive @RequestParam(name = "size", required = false) Integer size) {
+                                                         @Positive @RequestParam(name = "size", required = false) Integer size,
+                                                         @RequestParam(name = "after", required = false) String after,
+                                                         @RequestParam(name = "withTotal", defaultValue = "false") boolean withTotal) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new UnsupportedStateException("Unknown state: " + stateParam));
-        log.info("Get booking by a booker with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        if (from != null && size != null) {
-            return bookingClient.getBookingsByBooker(userId, state, from, size);
+        log.info("Get booking by a booker with state {}, userId={}, from={}, size={}, after={}", stateParam, userId, from, size, after);
+        if (after != null && size != null) {
+            return bookingClient.getBookingsByBooker(userId, state, after, size, withTotal);
+        } else if (from != null && size != null) {
+            return bookingClient.getBookingsByBooker(userId, state, from, size, withTotal);
         } else {
             return bookingClient.getBookingsByBooker(userId, state);
         }
@@ -56,12 +71,16 @@ public class BookingController {
     public ResponseEntity<Object> getAllBookingsByOwner(@RequestHeader("X-Sharer-User-Id") long userId,
                                                         @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                                         @PositiveOrZero @RequestParam(name = "from", required = false) Integer from,
-                                                        @Positive @RequestParam(name = "size", required = false) Integer size) {
+                                                        @Positive @RequestParam(name = "size", required = false) Integer size,
+                                                        @RequestParam(name = "after", required = false) String after,
+                                                        @RequestParam(name = "withTotal", defaultValue = "false") boolean withTotal) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new UnsupportedStateException("Unknown state: " + stateParam));
-        log.info("Get booking by an owner with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        if (from != null && size != null) {
-            return bookingClient.getBookingsByOwner(userId, state, from, size);
+        log.info("Get booking by an owner with state {}, userId={}, from={}, size={}, after={}", stateParam, userId, from, size, after);
+        if (after != null && size != null) {
+            return bookingClient.getBookingsByOwner(userId, state, after, size, withTotal);
+        } else if (from != null && size != null) {
+            return bookingClient.getBookingsByOwner(userId, state, from, size, withTotal);
         } else {
             return bookingClient.getBookingsByOwner(userId, state);
         }
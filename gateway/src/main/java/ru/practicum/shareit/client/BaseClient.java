@@ -1,25 +1,31 @@
 package ru.practicum.shareit.client;
 
-import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.converter.StringHttpMessageConverter;
 import org.springframework.lang.Nullable;
-import org.springframework.web.client.HttpStatusCodeException;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+import reactor.core.publisher.Mono;
 
-import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
 public class BaseClient {
-    protected final RestTemplate rest;
+    protected final ServerTransport transport;
+    @Nullable
+    private final ResponseCache responseCache;
+    @Nullable
+    private final String cacheRegion;
 
-    public BaseClient(RestTemplate rest) {
-        this.rest = rest;
-        this.rest.getMessageConverters().add(0, new StringHttpMessageConverter(StandardCharsets.UTF_8));
+    public BaseClient(ServerTransport transport) {
+        this(transport, null, null);
+    }
+
+    public BaseClient(ServerTransport transport, @Nullable ResponseCache responseCache, @Nullable String cacheRegion) {
+        this.transport = transport;
+        this.responseCache = responseCache;
+        this.cacheRegion = cacheRegion;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -34,6 +40,44 @@ public class BaseClient {
         return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
     }
 
+    protected ResponseEntity<Object> getCached(String path, long userId) {
+        if (responseCache == null) {
+            return get(path, userId);
+        }
+
+        ResponseCache.Entry cached = responseCache.get(cacheRegion, path, userId);
+        if (cached != null && cached.isFresh()) {
+            return responseCache.hit(cached);
+        }
+
+        HttpHeaders headers = defaultHeaders(userId);
+        if (cached != null) {
+            headers.setIfNoneMatch(cached.getEtag());
+        }
+
+        return send(transport.exchange(HttpMethod.GET, path, headers, null, null)
+                             .map(response -> responseCache.update(cacheRegion, path, userId, cached, response)));
+    }
+
+    /**
+     * Evicts the cached response of a path once the server has answered a write that changes it, before the
+     * answer is passed on. Evicting earlier would let a read racing with the write cache the old body again.
+     */
+    protected ResponseEntity<Object> evictCachedAfter(String path, Mono<ResponseEntity<Object>> write) {
+        return send(write.doOnSuccess(response -> evictCached(path))
+                         .doOnError(e -> evictCached(path)));
+    }
+
+    private void evictCached(String path) {
+        if (responseCache != null) {
+            responseCache.evict(cacheRegion, path);
+        }
+    }
+
+    protected <T> Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, long userId, @Nullable T body) {
+        return transport.exchange(method, path, defaultHeaders(userId), null, body);
+    }
+
     protected <T> ResponseEntity<Object> post(String path, T body) {
         return post(path, null, null, body);
     }
@@ -83,19 +127,19 @@ public class BaseClient {
     }
 
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
-        HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
-
-        ResponseEntity<Object> shareitServerResponse;
-        try {
-            if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
-            } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
-            }
-        } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        return send(transport.exchange(method, path, defaultHeaders(userId), parameters, body));
+    }
+
+    private ResponseEntity<Object> send(Mono<ResponseEntity<Object>> serverResponse) {
+        Mono<ResponseEntity<Object>> shareitServerResponse = serverResponse.map(BaseClient::prepareGatewayResponse);
+
+        if (transport.isBlocking()) {
+            return shareitServerResponse.block();
         }
-        return prepareGatewayResponse(shareitServerResponse);
+
+        DeferredResult<ResponseEntity<Object>> deferredResponse = new DeferredResult<>();
+        shareitServerResponse.subscribe(deferredResponse::setResult, deferredResponse::setErrorResult);
+        return ResponseEntity.ok(deferredResponse);
     }
 
     private HttpHeaders defaultHeaders(Long userId) {
@@ -113,7 +157,8 @@ public class BaseClient {
             return response;
         }
 
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+                                                                   .headers(response.getHeaders());
 
         if (response.hasBody()) {
             return responseBuilder.body(response.getBody());
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Collapses identical in-flight GET requests on allow-listed routes into one call to the server. The first
+ * caller performs the exchange and every caller that arrives before it completes receives the same response.
+ */
+public class CoalescingTransport implements ServerTransport {
+    private static final PathMatcher PATH_MATCHER = new AntPathMatcher();
+    private static final String METRIC_NAME = "shareit.gateway.coalescing.requests";
+
+    private final ServerTransport delegate;
+    private final String apiPrefix;
+    private final List<String> routes;
+    private final ConcurrentMap<Key, Mono<ResponseEntity<Object>>> inFlight = new ConcurrentHashMap<>();
+    private final Counter leaders;
+    private final Counter collapsed;
+
+    public CoalescingTransport(ServerTransport delegate, String apiPrefix, List<String> routes, MeterRegistry registry) {
+        this.delegate = delegate;
+        this.apiPrefix = apiPrefix;
+        this.routes = routes;
+        this.leaders = requests("leader", registry);
+        this.collapsed = requests("collapsed", registry);
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        if (method != HttpMethod.GET || !isCoalesced(path)) {
+            return delegate.exchange(method, path, headers, parameters, body);
+        }
+
+        Key key = new Key(path, parameters, headers);
+        return Mono.defer(() -> {
+            Mono<ResponseEntity<Object>> call = inFlight.get(key);
+            if (call != null) {
+                collapsed.increment();
+                return call;
+            }
+
+            Mono<ResponseEntity<Object>> newCall = createCall(key, path, headers, parameters);
+            call = inFlight.putIfAbsent(key, newCall);
+            if (call != null) {
+                collapsed.increment();
+                return call;
+            }
+            leaders.increment();
+            return newCall;
+        });
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return delegate.isBlocking();
+    }
+
+    private Mono<ResponseEntity<Object>> createCall(Key key, String path, HttpHeaders headers,
+                                                    @Nullable Map<String, Object> parameters) {
+        // the call replays its outcome instead of resubscribing, so a caller that looked it up just before it
+        // completed does not send a second request, and it only ever removes itself from the in-flight calls
+        AtomicReference<Mono<ResponseEntity<Object>>> call = new AtomicReference<>();
+        call.set(delegate.exchange(HttpMethod.GET, path, headers, parameters, null)
+                         .doFinally(signal -> inFlight.remove(key, call.get()))
+                         .cache());
+        return call.get();
+    }
+
+    private boolean isCoalesced(String path) {
+        String route = apiPrefix + path;
+        int query = route.indexOf('?');
+        if (query >= 0) {
+            route = route.substring(0, query);
+        }
+        if (route.length() > 1 && route.endsWith("/")) {
+            route = route.substring(0, route.length() - 1);
+        }
+        for (String pattern : routes) {
+            if (PATH_MATCHER.match(pattern, route)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Counter requests(String role, MeterRegistry registry) {
+        return Counter.builder(METRIC_NAME)
+                      .description("Coalescable GET requests sent to the server (leader) or served from an in-flight call (collapsed)")
+                      .tag("role", role)
+                      .register(registry);
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final String path;
+        @Nullable
+        private final Map<String, Object> parameters;
+        private final HttpHeaders headers;
+    }
+}
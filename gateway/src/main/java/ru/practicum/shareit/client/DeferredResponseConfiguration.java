@@ -0,0 +1,32 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.method.support.HandlerMethodReturnValueHandler;
+import org.springframework.web.servlet.mvc.method.annotation.HttpEntityMethodProcessor;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+public class DeferredResponseConfiguration implements InitializingBean {
+    private final RequestMappingHandlerAdapter handlerAdapter;
+
+    @Autowired
+    public DeferredResponseConfiguration(RequestMappingHandlerAdapter handlerAdapter) {
+        this.handlerAdapter = handlerAdapter;
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        List<HandlerMethodReturnValueHandler> handlers = new ArrayList<>(handlerAdapter.getReturnValueHandlers());
+        HandlerMethodReturnValueHandler entityHandler = handlers.stream()
+                                                                .filter(HttpEntityMethodProcessor.class::isInstance)
+                                                                .findFirst()
+                                                                .orElseThrow();
+        handlers.add(handlers.indexOf(entityHandler), new DeferredResponseReturnValueHandler(entityHandler));
+        handlerAdapter.setReturnValueHandlers(handlers);
+    }
+}
@@ -0,0 +1,27 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Set;
+
+public class PassthroughResponses {
+    private static final Set<String> EXCLUDED_HEADERS = Set.of(
+            HttpHeaders.CONNECTION.toLowerCase(),
+            HttpHeaders.TRANSFER_ENCODING.toLowerCase(),
+            HttpHeaders.CONTENT_LENGTH.toLowerCase(),
+            "keep-alive",
+            HttpHeaders.DATE.toLowerCase()
+    );
+
+    public static ResponseEntity<Object> toResponse(HttpStatus status, HttpHeaders serverHeaders, byte[] body) {
+        HttpHeaders headers = new HttpHeaders();
+        serverHeaders.forEach((name, values) -> {
+            if (!EXCLUDED_HEADERS.contains(name.toLowerCase())) {
+                headers.addAll(name, values);
+            }
+        });
+        return ResponseEntity.status(status).headers(headers).body(body);
+    }
+}
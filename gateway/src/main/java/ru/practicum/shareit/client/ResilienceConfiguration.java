@@ -0,0 +1,58 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ResilienceProperties.class)
+public class ResilienceConfiguration {
+    private static final String TRANSITIONS_METRIC_NAME = "shareit.gateway.circuit.transitions";
+
+    @Bean
+    public CircuitBreakerRegistry circuitBreakerRegistry(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        CircuitBreakerConfig config = CircuitBreakerConfig.custom()
+                                                          .failureRateThreshold(properties.getFailureRateThreshold())
+                                                          .slowCallRateThreshold(properties.getSlowCallRateThreshold())
+                                                          .slowCallDurationThreshold(properties.getSlowCallDuration())
+                                                          .slidingWindowSize(properties.getSlidingWindowSize())
+                                                          .minimumNumberOfCalls(properties.getMinimumCalls())
+                                                          .waitDurationInOpenState(properties.getOpenDuration())
+                                                          .permittedNumberOfCallsInHalfOpenState(properties.getHalfOpenCalls())
+                                                          .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                                                          .build();
+        CircuitBreakerRegistry registry = CircuitBreakerRegistry.of(config);
+
+        registry.getEventPublisher()
+                .onEntryAdded(event -> event.getAddedEntry()
+                                            .getEventPublisher()
+                                            .onStateTransition(transition -> Counter.builder(TRANSITIONS_METRIC_NAME)
+                                                                                    .description("Circuit breaker state transitions")
+                                                                                    .tag("name", transition.getCircuitBreakerName())
+                                                                                    .tag("from", transition.getStateTransition().getFromState().name())
+                                                                                    .tag("to", transition.getStateTransition().getToState().name())
+                                                                                    .register(meterRegistry)
+                                                                                    .increment()));
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+
+    @Bean
+    public BulkheadRegistry bulkheadRegistry(ResilienceProperties properties, MeterRegistry meterRegistry) {
+        BulkheadConfig config = BulkheadConfig.custom()
+                                              .maxConcurrentCalls(properties.getMaxConcurrentCalls())
+                                              .maxWaitDuration(properties.getMaxWait())
+                                              .build();
+        BulkheadRegistry registry = BulkheadRegistry.of(config);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(registry).bindTo(meterRegistry);
+        return registry;
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.client;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.resilience")
+public class ResilienceProperties {
+    private int maxConcurrentCalls = 50;
+    private Duration maxWait = Duration.ofMillis(100);
+    private float failureRateThreshold = 50;
+    private float slowCallRateThreshold = 50;
+    private Duration slowCallDuration = Duration.ofSeconds(2);
+    private int slidingWindowSize = 50;
+    private int minimumCalls = 20;
+    private Duration openDuration = Duration.ofSeconds(10);
+    private int halfOpenCalls = 5;
+}
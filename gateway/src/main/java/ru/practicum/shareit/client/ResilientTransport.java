@@ -0,0 +1,71 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+
+import static java.lang.String.format;
+
+/**
+ * Guards calls to one server API with a bulkhead limiting concurrent calls and a circuit breaker that counts
+ * errors, 5xx answers and slow calls. Rejected calls are answered with 503 without reaching the server.
+ */
+public class ResilientTransport implements ServerTransport {
+    private final ServerTransport delegate;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+
+    public ResilientTransport(ServerTransport delegate, CircuitBreaker circuitBreaker, Bulkhead bulkhead) {
+        this.delegate = delegate;
+        this.circuitBreaker = circuitBreaker;
+        this.bulkhead = bulkhead;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return delegate.exchange(method, path, headers, parameters, body)
+                       .flatMap(response -> response.getStatusCode().is5xxServerError()
+                               ? Mono.<ResponseEntity<Object>>error(new ServerErrorResponse(response))
+                               : Mono.just(response))
+                       .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                       .transformDeferred(BulkheadOperator.of(bulkhead))
+                       .onErrorResume(ServerErrorResponse.class, e -> Mono.just(e.response))
+                       .onErrorResume(CallNotPermittedException.class,
+                               e -> Mono.just(unavailable(format("Server API %s is unavailable", circuitBreaker.getName()))))
+                       .onErrorResume(BulkheadFullException.class,
+                               e -> Mono.just(unavailable(format("Too many concurrent calls to server API %s", bulkhead.getName()))));
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return delegate.isBlocking();
+    }
+
+    private static ResponseEntity<Object> unavailable(String message) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                             .contentType(MediaType.APPLICATION_JSON)
+                             .body(Map.of("error", message));
+    }
+
+    private static class ServerErrorResponse extends RuntimeException {
+        private final ResponseEntity<Object> response;
+
+        ServerErrorResponse(ResponseEntity<Object> response) {
+            super(null, null, false, false);
+            this.response = response;
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package ru.practicum.shareit.client;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Bounded cache of server responses keyed by path and sharer id. Entries are served directly while fresh and
+ * revalidated with If-None-Match afterwards, so an unchanged entity costs the server a 304 instead of a body.
+ * Only writes made through the same client evict entries. Bookings and answers to requests change item and
+ * request views too, so with a non-zero freshness those changes would only show once the entry goes stale.
+ */
+@Component
+public class ResponseCache {
+    private static final String CACHE_NAME = "gateway-responses";
+    private static final String METRIC_NAME = "shareit.gateway.response.cache";
+
+    private final Cache<Key, Entry> responses;
+    private final long freshForNanos;
+    private final Counter hits;
+    private final Counter revalidations;
+    private final Counter misses;
+
+    @Autowired
+    public ResponseCache(@Value("${shareit-gateway.response-cache.max-size:10000}") long maxSize,
+                         @Value("${shareit-gateway.response-cache.ttl:10m}") Duration ttl,
+                         @Value("${shareit-gateway.response-cache.fresh-for:0s}") Duration freshFor,
+                         MeterRegistry registry) {
+        this.responses = Caffeine.newBuilder()
+                                 .maximumSize(maxSize)
+                                 .expireAfterWrite(ttl)
+                                 .recordStats()
+                                 .build();
+        this.freshForNanos = freshFor.toNanos();
+        this.hits = requests("hit", registry);
+        this.revalidations = requests("revalidated", registry);
+        this.misses = requests("miss", registry);
+
+        CaffeineCacheMetrics.monitor(registry, responses, CACHE_NAME);
+        Gauge.builder(METRIC_NAME + ".hit.ratio", this, ResponseCache::hitRatio)
+             .description("Share of cacheable reads answered without a response body from the server")
+             .register(registry);
+    }
+
+    @Nullable
+    public Entry get(String region, String path, long userId) {
+        return responses.getIfPresent(new Key(region, path, userId));
+    }
+
+    public ResponseEntity<Object> hit(Entry entry) {
+        hits.increment();
+        return entry.getResponse();
+    }
+
+    public ResponseEntity<Object> update(String region, String path, long userId, @Nullable Entry cached,
+                                         ResponseEntity<Object> response) {
+        Key key = new Key(region, path, userId);
+
+        if (response.getStatusCode() == HttpStatus.NOT_MODIFIED && cached != null) {
+            revalidations.increment();
+            responses.put(key, new Entry(cached.getEtag(), cached.getResponse(), System.nanoTime()));
+            return cached.getResponse();
+        }
+
+        misses.increment();
+        String etag = response.getHeaders().getETag();
+        if (response.getStatusCode().is2xxSuccessful() && etag != null) {
+            responses.put(key, new Entry(etag, response, System.nanoTime()));
+        } else {
+            responses.invalidate(key);
+        }
+        return response;
+    }
+
+    public void evict(String region, String path) {
+        responses.asMap()
+                 .keySet()
+                 .removeIf(key -> key.region.equals(region) && key.path.equals(path));
+    }
+
+    private double hitRatio() {
+        double total = hits.count() + revalidations.count() + misses.count();
+        return total == 0 ? 0 : (hits.count() + revalidations.count()) / total;
+    }
+
+    private static Counter requests(String result, MeterRegistry registry) {
+        return Counter.builder(METRIC_NAME + ".requests")
+                      .description("Cacheable reads by outcome")
+                      .tag("result", result)
+                      .register(registry);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public class Entry {
+        private final String etag;
+        private final ResponseEntity<Object> response;
+        private final long storedAt;
+
+        public boolean isFresh() {
+            return System.nanoTime() - storedAt < freshForNanos;
+        }
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class Key {
+        private final String region;
+        private final String path;
+        private final long userId;
+    }
+}
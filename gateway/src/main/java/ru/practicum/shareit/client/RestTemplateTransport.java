@@ -0,0 +1,59 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.lang.Nullable;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.RestTemplate;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+public class RestTemplateTransport implements ServerTransport {
+    private final RestTemplate rest;
+    private final boolean passthrough;
+
+    public RestTemplateTransport(RestTemplate rest, boolean passthrough) {
+        this.rest = rest;
+        this.passthrough = passthrough;
+        this.rest.getMessageConverters().add(0, new StringHttpMessageConverter(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        return Mono.fromCallable(() -> send(method, path, headers, parameters, body));
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return true;
+    }
+
+    private ResponseEntity<Object> send(HttpMethod method, String path, HttpHeaders headers,
+                                        @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        HttpEntity<Object> requestEntity = new HttpEntity<>(body, headers);
+        try {
+            if (passthrough) {
+                ResponseEntity<byte[]> response = parameters != null
+                        ? rest.exchange(path, method, requestEntity, byte[].class, parameters)
+                        : rest.exchange(path, method, requestEntity, byte[].class);
+                return PassthroughResponses.toResponse(response.getStatusCode(), response.getHeaders(), response.getBody());
+            }
+            if (parameters != null) {
+                return rest.exchange(path, method, requestEntity, Object.class, parameters);
+            } else {
+                return rest.exchange(path, method, requestEntity, Object.class);
+            }
+        } catch (HttpStatusCodeException e) {
+            if (passthrough && e.getResponseHeaders() != null) {
+                return PassthroughResponses.toResponse(e.getStatusCode(), e.getResponseHeaders(), e.getResponseBodyAsByteArray());
+            }
+            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+@Configuration
+public class ServerConnectionPoolConfiguration {
+    private static final String POOL_METRIC_PREFIX = "shareit.server.pool.";
+
+    @Bean(destroyMethod = "close")
+    public PoolingHttpClientConnectionManager serverConnectionManager(
+            @Value("${shareit-server.pool.max-total:200}") int maxTotal,
+            @Value("${shareit-server.pool.max-per-route:100}") int maxPerRoute,
+            @Value("${shareit-server.pool.validate-after-inactivity:2s}") Duration validateAfterInactivity) {
+        PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+        connectionManager.setMaxTotal(maxTotal);
+        connectionManager.setDefaultMaxPerRoute(maxPerRoute);
+        connectionManager.setValidateAfterInactivity((int) validateAfterInactivity.toMillis());
+        return connectionManager;
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient serverHttpClient(
+            PoolingHttpClientConnectionManager serverConnectionManager,
+            @Value("${shareit-server.pool.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-server.pool.read-timeout:10s}") Duration readTimeout,
+            @Value("${shareit-server.pool.acquire-timeout:1s}") Duration acquireTimeout,
+            @Value("${shareit-server.pool.keep-alive:30s}") Duration keepAlive,
+            @Value("${shareit-server.pool.idle-eviction:60s}") Duration idleEviction) {
+        RequestConfig requestConfig = RequestConfig.custom()
+                                                   .setConnectTimeout((int) connectTimeout.toMillis())
+                                                   .setSocketTimeout((int) readTimeout.toMillis())
+                                                   .setConnectionRequestTimeout((int) acquireTimeout.toMillis())
+                                                   .build();
+
+        return HttpClients.custom()
+                          .setConnectionManager(serverConnectionManager)
+                          .setConnectionManagerShared(true)
+                          .setDefaultRequestConfig(requestConfig)
+                          .setKeepAliveStrategy(keepAliveStrategy(keepAlive))
+                          .evictExpiredConnections()
+                          .evictIdleConnections(idleEviction.toMillis(), TimeUnit.MILLISECONDS)
+                          .build();
+    }
+
+    @Bean
+    public MeterBinder serverConnectionPoolMetrics(PoolingHttpClientConnectionManager serverConnectionManager) {
+        return registry -> {
+            poolGauge("leased", "Connections to the server currently in use", serverConnectionManager,
+                    PoolStats::getLeased).register(registry);
+            poolGauge("pending", "Requests waiting for a connection to the server", serverConnectionManager,
+                    PoolStats::getPending).register(registry);
+            poolGauge("available", "Idle connections to the server kept in the pool", serverConnectionManager,
+                    PoolStats::getAvailable).register(registry);
+            poolGauge("max", "Maximum number of connections to the server", serverConnectionManager,
+                    PoolStats::getMax).register(registry);
+        };
+    }
+
+    private static Gauge.Builder<PoolingHttpClientConnectionManager> poolGauge(
+            String name, String description, PoolingHttpClientConnectionManager connectionManager,
+            ToIntFunction<PoolStats> value) {
+        return Gauge.builder(POOL_METRIC_PREFIX + name, connectionManager,
+                            manager -> value.applyAsInt(manager.getTotalStats()))
+                    .description(description);
+    }
+
+    private static ConnectionKeepAliveStrategy keepAliveStrategy(Duration keepAlive) {
+        return (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive.toMillis()) : keepAlive.toMillis();
+        };
+    }
+}
@@ -0,0 +1,81 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.http.client.HttpClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.util.List;
+
+@Component
+public class ServerTransportFactory {
+    private final String serverUrl;
+    private final TransportMode mode;
+    private final boolean passthrough;
+    private final RestTemplateBuilder restTemplateBuilder;
+    private final HttpClient serverHttpClient;
+    private final ObjectProvider<WebClient.Builder> webClientBuilder;
+    private final List<String> coalescedRoutes;
+    private final MeterRegistry meterRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+
+    @Autowired
+    public ServerTransportFactory(@Value("${shareit-server.url}") String serverUrl,
+                                  @Value("${shareit-server.transport:blocking}") TransportMode mode,
+                                  @Value("${shareit-server.passthrough:false}") boolean passthrough,
+                                  RestTemplateBuilder restTemplateBuilder,
+                                  HttpClient serverHttpClient,
+                                  ObjectProvider<WebClient.Builder> webClientBuilder,
+                                  @Value("${shareit-gateway.coalescing.routes:}") List<String> coalescedRoutes,
+                                  MeterRegistry meterRegistry,
+                                  CircuitBreakerRegistry circuitBreakerRegistry,
+                                  BulkheadRegistry bulkheadRegistry) {
+        this.serverUrl = serverUrl;
+        this.mode = mode;
+        this.passthrough = passthrough;
+        this.restTemplateBuilder = restTemplateBuilder;
+        this.serverHttpClient = serverHttpClient;
+        this.webClientBuilder = webClientBuilder;
+        this.coalescedRoutes = coalescedRoutes;
+        this.meterRegistry = meterRegistry;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+    }
+
+    public ServerTransport create(String apiPrefix) {
+        String name = apiPrefix.substring(1);
+        ServerTransport transport = new ResilientTransport(createTransport(apiPrefix),
+                circuitBreakerRegistry.circuitBreaker(name), bulkheadRegistry.bulkhead(name));
+        if (coalescedRoutes.isEmpty()) {
+            return transport;
+        }
+        return new CoalescingTransport(transport, apiPrefix, coalescedRoutes, meterRegistry);
+    }
+
+    private ServerTransport createTransport(String apiPrefix) {
+        DefaultUriBuilderFactory uriBuilderFactory = new DefaultUriBuilderFactory(serverUrl + apiPrefix);
+
+        if (mode == TransportMode.REACTIVE) {
+            return new WebClientTransport(webClientBuilder.getObject()
+                                                          .uriBuilderFactory(uriBuilderFactory)
+                                                          .build(), passthrough);
+        }
+        return new RestTemplateTransport(restTemplateBuilder.uriTemplateHandler(uriBuilderFactory)
+                                                            .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(serverHttpClient))
+                                                            .build(), passthrough);
+    }
+
+    public enum TransportMode {
+        BLOCKING,
+        REACTIVE
+    }
+}
@@ -0,0 +1,49 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.util.Collections;
+import java.util.Map;
+
+public class WebClientTransport implements ServerTransport {
+    private final WebClient webClient;
+    private final boolean passthrough;
+
+    public WebClientTransport(WebClient webClient, boolean passthrough) {
+        this.webClient = webClient;
+        this.passthrough = passthrough;
+    }
+
+    @Override
+    public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                 @Nullable Map<String, Object> parameters, @Nullable Object body) {
+        WebClient.RequestBodySpec request = webClient.method(method)
+                                                     .uri(path, parameters != null ? parameters : Collections.emptyMap())
+                                                     .headers(h -> h.addAll(headers));
+
+        return (body != null ? request.bodyValue(body) : request)
+                .exchangeToMono(response -> {
+                    if (passthrough) {
+                        return response.toEntity(byte[].class)
+                                       .map(entity -> PassthroughResponses.toResponse(entity.getStatusCode(),
+                                               entity.getHeaders(), entity.getBody()));
+                    }
+                    if (response.statusCode().is2xxSuccessful()) {
+                        return response.toEntity(Object.class);
+                    }
+                    return response.toEntity(byte[].class)
+                                   .map(entity -> ResponseEntity.status(entity.getStatusCode())
+                                                                .body((Object) entity.getBody()));
+                });
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return false;
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.exceptions;
+
+public class BatchTooLargeException extends RuntimeException {
+
+    public BatchTooLargeException(String message) {
+        super(message);
+    }
+}
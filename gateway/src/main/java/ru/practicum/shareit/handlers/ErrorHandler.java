@@ -1,11 +1,15 @@
 package ru.practicum.shareit.handlers;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import ru.practicum.shareit.batch.BatchController;
 import ru.practicum.shareit.booking.BookingController;
+import ru.practicum.shareit.exceptions.BatchTooLargeException;
+import ru.practicum.shareit.exceptions.RateLimitExceededException;
 import ru.practicum.shareit.exceptions.UnsupportedStateException;
 import ru.practicum.shareit.item.ItemController;
 import ru.practicum.shareit.request.RequestController;
@@ -18,7 +22,8 @@ import java.util.Map;
         BookingController.class,
         ItemController.class,
         UserController.class,
-        RequestController.class
+        RequestController.class,
+        BatchController.class
 })
 public class ErrorHandler {
 
@@ -28,6 +33,21 @@ public class ErrorHandler {
         return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.BAD_REQUEST);
     }
 
+    @ExceptionHandler(value = {BatchTooLargeException.class})
+    public ResponseEntity<Map<String, String>> handleBatchTooLargeException(final BatchTooLargeException e) {
+        log.warn("Gateway returned HttpCode 413: {}", e.getMessage());
+        return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.PAYLOAD_TOO_LARGE);
+    }
+
+    @ExceptionHandler(value = {RateLimitExceededException.class})
+    public ResponseEntity<Map<String, String>> handleRateLimitExceededException(final RateLimitExceededException e) {
+        log.warn("Gateway returned HttpCode 429: {}", e.getMessage());
+        long retryAfterSeconds = Math.max(1, (e.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                             .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                             .body(Map.of("error", e.getMessage()));
+    }
+
     @ExceptionHandler(value = {Throwable.class})
     public ResponseEntity<Map<String, String>> handleThrowable(final Throwable e) {
         log.error("Server returned HttpCode 400: {}", e.getMessage(), e);
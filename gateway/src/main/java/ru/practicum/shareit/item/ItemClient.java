@@ -1,12 +1,11 @@
 package ru.practicum.shareit.item;
 
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
-import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransportFactory;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
@@ -17,17 +16,12 @@ public class ItemClient extends BaseClient {
     private static final String API_PREFIX = "/items";
 
 
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
-        super(
-                builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
-        );
+    public ItemClient(ServerTransportFactory transportFactory, ResponseCache responseCache) {
+        super(transportFactory.create(API_PREFIX), responseCache, API_PREFIX);
     }
 
     public ResponseEntity<Object> getItemById(long userId, long itemId) {
-        return get("/" + itemId, userId);
+        return getCached("/" + itemId, userId);
     }
 
     public ResponseEntity<Object> getAllItems(long userId, Integer from, Integer size) {
@@ -47,11 +41,11 @@ public class ItemClient extends BaseClient {
     }
 
     public ResponseEntity<Object> createComment(long userId, long itemId, CommentDto commentDto) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+        return evictCachedAfter("/" + itemId, exchange(HttpMethod.POST, "/" + itemId + "/comment", userId, commentDto));
     }
 
     public ResponseEntity<Object> patchItem(long itemId, long userId, Map<String, Object> body) {
-        return patch("/" + itemId, userId, body);
+        return evictCachedAfter("/" + itemId, exchange(HttpMethod.PATCH, "/" + itemId, userId, body));
     }
 
     public ResponseEntity<Object> searchItem(long userId, String text, Integer from, Integer size) {
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.ratelimit;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Getter
+@Setter
+@ConfigurationProperties(prefix = "shareit-gateway.rate-limit")
+public class RateLimitProperties {
+    private boolean enabled;
+    private long maxUsers = 100_000;
+    private Duration idleExpiry = Duration.ofMinutes(10);
+    private Group read = new Group(20, 40, 2000, 4000);
+    private Group write = new Group(5, 10, 500, 1000);
+
+    public Group getGroup(RouteGroup routeGroup) {
+        return routeGroup == RouteGroup.READ ? read : write;
+    }
+
+    @Getter
+    @Setter
+    public static class Group {
+        private double userRate;
+        private int userBurst;
+        private double globalRate;
+        private int globalBurst;
+
+        public Group() {
+        }
+
+        Group(double userRate, int userBurst, double globalRate, int globalBurst) {
+            this.userRate = userRate;
+            this.userBurst = userBurst;
+            this.globalRate = globalRate;
+            this.globalBurst = globalBurst;
+        }
+    }
+}
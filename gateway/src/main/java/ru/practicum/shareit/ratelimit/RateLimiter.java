@@ -0,0 +1,87 @@
+package ru.practicum.shareit.ratelimit;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.exceptions.RateLimitExceededException;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static java.lang.String.format;
+
+@Component
+public class RateLimiter {
+    private static final String METRIC_NAME = "shareit.gateway.rate.limit.rejected";
+
+    private final RateLimitProperties properties;
+    private final Cache<UserKey, TokenBucket> userBuckets;
+    private final Map<RouteGroup, TokenBucket> globalBuckets = new EnumMap<>(RouteGroup.class);
+    private final Map<RouteGroup, Counter> userRejections = new EnumMap<>(RouteGroup.class);
+    private final Map<RouteGroup, Counter> globalRejections = new EnumMap<>(RouteGroup.class);
+
+    @Autowired
+    public RateLimiter(RateLimitProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        // an idle bucket refills completely, so evicting it loses nothing
+        this.userBuckets = Caffeine.newBuilder()
+                                   .maximumSize(properties.getMaxUsers())
+                                   .expireAfterAccess(properties.getIdleExpiry())
+                                   .build();
+
+        for (RouteGroup routeGroup : RouteGroup.values()) {
+            RateLimitProperties.Group group = properties.getGroup(routeGroup);
+            globalBuckets.put(routeGroup, new TokenBucket(group.getGlobalRate(), group.getGlobalBurst()));
+            userRejections.put(routeGroup, rejections(routeGroup, "user", registry));
+            globalRejections.put(routeGroup, rejections(routeGroup, "global", registry));
+        }
+    }
+
+    public void acquire(RouteGroup routeGroup, @Nullable Long userId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+
+        if (userId != null) {
+            TokenBucket userBucket = userBuckets.get(new UserKey(routeGroup, userId), key -> {
+                RateLimitProperties.Group group = properties.getGroup(routeGroup);
+                return new TokenBucket(group.getUserRate(), group.getUserBurst());
+            });
+            long wait = userBucket.tryAcquire(now);
+            if (wait > 0) {
+                userRejections.get(routeGroup).increment();
+                throw new RateLimitExceededException(format("Too many requests from user with userId=%s", userId),
+                        Duration.ofNanos(wait));
+            }
+        }
+
+        long wait = globalBuckets.get(routeGroup).tryAcquire(now);
+        if (wait > 0) {
+            globalRejections.get(routeGroup).increment();
+            throw new RateLimitExceededException("Too many requests", Duration.ofNanos(wait));
+        }
+    }
+
+    private static Counter rejections(RouteGroup routeGroup, String scope, MeterRegistry registry) {
+        return Counter.builder(METRIC_NAME)
+                      .description("Requests rejected by the gateway rate limiter")
+                      .tag("group", routeGroup.name().toLowerCase())
+                      .tag("scope", scope)
+                      .register(registry);
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class UserKey {
+        private final RouteGroup routeGroup;
+        private final long userId;
+    }
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.ratelimit;
+
+public enum RouteGroup {
+    READ,
+    WRITE
+}
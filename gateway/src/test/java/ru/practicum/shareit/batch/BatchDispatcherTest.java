@@ -0,0 +1,107 @@
+package ru.practicum.shareit.batch;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.reactive.function.client.WebClient;
+import ru.practicum.shareit.batch.dto.BatchRequestDto;
+import ru.practicum.shareit.batch.dto.BatchResponseDto;
+
+import javax.validation.Validation;
+import javax.validation.Validator;
+import javax.validation.ValidatorFactory;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BatchDispatcherTest {
+    private static ValidatorFactory validatorFactory;
+    private static Validator validator;
+
+    @BeforeAll
+    static void setUpValidator() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+    }
+
+    @AfterAll
+    static void closeValidator() {
+        validatorFactory.close();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/items",
+            "/items/",
+            "/items/1",
+            "/items/search?text=drill",
+            "/items/1/comment",
+            "/bookings/owner?state=ALL&from=0&size=10",
+            "/requests/all",
+            "/users/5"
+    })
+    void apiPathsShouldBeAcceptedTest(String path) {
+        assertTrue(validator.validate(request(path)).isEmpty(), path);
+        assertTrue(BatchDispatcher.isApiPath(path), path);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/batch",
+            "/items/../batch",
+            "/items/../actuator/health",
+            "/items/./1",
+            "/items/%2e%2e/batch",
+            "/items/..;/batch",
+            "/items//../batch",
+            "/itemsx/1",
+            "/actuator/health",
+            "http://localhost/items",
+            "//localhost/items"
+    })
+    void pathsOutsideOfApiShouldBeRejectedTest(String path) {
+        assertFalse(validator.validate(request(path)).isEmpty(), path);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {
+            "/batch",
+            "/items/../batch",
+            "/items/../actuator/health",
+            "/items/./1",
+            "/actuator/health",
+            "http://localhost/items",
+            "//localhost/items"
+    })
+    void dispatcherShouldRefuseNonApiPathsTest(String path) {
+        assertFalse(BatchDispatcher.isApiPath(path), path);
+    }
+
+    @Test
+    void dispatchShouldAnswerNestedBatchWithBadRequestWithoutCallingGatewayTest() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("webClientBuilder", WebClient.builder());
+        BatchDispatcher dispatcher = new BatchDispatcher(beanFactory.getBeanProvider(WebClient.Builder.class),
+                new ObjectMapper(), 2);
+
+        List<BatchResponseDto> responses = dispatcher.dispatch(List.of(request("/items/../batch"), request("/batch")), 1L)
+                                                     .block();
+
+        assertEquals(2, responses.size());
+        responses.forEach(response -> assertEquals(400, response.getStatus()));
+    }
+
+    private static BatchRequestDto request(String path) {
+        return BatchRequestDto.builder()
+                              .withMethod(HttpMethod.GET)
+                              .withPath(path)
+                              .build();
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicReference;
+
+class CoalescingTransportTest {
+    private PendingTransport server;
+    private CoalescingTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        server = new PendingTransport();
+        transport = new CoalescingTransport(server, "/items", List.of("/items/*"), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void identicalInFlightGetsShouldShareOneServerCallTest() {
+        List<ResponseEntity<Object>> responses = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            transport.exchange(HttpMethod.GET, "/1", headers(1), null, null).subscribe(responses::add);
+        }
+
+        server.complete(0, ResponseEntity.ok("item"));
+
+        Assertions.assertEquals(1, server.calls.size());
+        Assertions.assertEquals(3, responses.size());
+        responses.forEach(response -> Assertions.assertEquals("item", response.getBody()));
+    }
+
+    @Test
+    void getAfterCompletionShouldCallServerAgainTest() {
+        AtomicReference<ResponseEntity<Object>> first = new AtomicReference<>();
+        AtomicReference<ResponseEntity<Object>> second = new AtomicReference<>();
+
+        transport.exchange(HttpMethod.GET, "/1", headers(1), null, null).subscribe(first::set);
+        server.complete(0, ResponseEntity.ok("old"));
+        transport.exchange(HttpMethod.GET, "/1", headers(1), null, null).subscribe(second::set);
+        server.complete(1, ResponseEntity.ok("new"));
+
+        Assertions.assertEquals(2, server.calls.size());
+        Assertions.assertEquals("old", first.get().getBody());
+        Assertions.assertEquals("new", second.get().getBody());
+    }
+
+    @Test
+    void cancelledCallShouldNotEvictNewerCallTest() {
+        transport.exchange(HttpMethod.GET, "/1", headers(1), null, null).subscribe().dispose();
+        server.complete(0, ResponseEntity.ok("old"));
+        transport.exchange(HttpMethod.GET, "/1", headers(1), null, null).subscribe();
+        transport.exchange(HttpMethod.GET, "/1", headers(1), null, null).subscribe();
+
+        Assertions.assertEquals(2, server.calls.size());
+    }
+
+    @Test
+    void serverErrorShouldReachEveryWaitingCallerTest() {
+        List<Throwable> errors = new ArrayList<>();
+        transport.exchange(HttpMethod.GET, "/1", headers(1), null, null).subscribe(response -> { }, errors::add);
+        transport.exchange(HttpMethod.GET, "/1", headers(1), null, null).subscribe(response -> { }, errors::add);
+
+        server.calls.get(0).tryEmitError(new IllegalStateException("Connection reset"));
+
+        Assertions.assertEquals(1, server.calls.size());
+        Assertions.assertEquals(2, errors.size());
+    }
+
+    @Test
+    void differentUsersWritesAndOtherRoutesShouldNotBeCoalescedTest() {
+        transport.exchange(HttpMethod.GET, "/1", headers(1), null, null).subscribe();
+        transport.exchange(HttpMethod.GET, "/1", headers(2), null, null).subscribe();
+        transport.exchange(HttpMethod.PATCH, "/1", headers(1), null, Map.of("name", "Drill")).subscribe();
+        transport.exchange(HttpMethod.PATCH, "/1", headers(1), null, Map.of("name", "Drill")).subscribe();
+        transport.exchange(HttpMethod.GET, "?from=0", headers(1), Map.of("from", 0), null).subscribe();
+        transport.exchange(HttpMethod.GET, "?from=0", headers(1), Map.of("from", 0), null).subscribe();
+
+        Assertions.assertEquals(6, server.calls.size());
+    }
+
+    private static HttpHeaders headers(long userId) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.set("X-Sharer-User-Id", String.valueOf(userId));
+        return headers;
+    }
+
+    /**
+     * Server whose calls stay in flight until the test completes them.
+     */
+    private static class PendingTransport implements ServerTransport {
+        private final List<Sinks.One<ResponseEntity<Object>>> calls = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                     @Nullable Map<String, Object> parameters, @Nullable Object body) {
+            return Mono.defer(() -> {
+                Sinks.One<ResponseEntity<Object>> call = Sinks.one();
+                calls.add(call);
+                return call.asMono();
+            });
+        }
+
+        @Override
+        public boolean isBlocking() {
+            return false;
+        }
+
+        void complete(int call, ResponseEntity<Object> response) {
+            calls.get(call).tryEmitValue(response);
+        }
+    }
+}
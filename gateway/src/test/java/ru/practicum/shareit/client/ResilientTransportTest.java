@@ -0,0 +1,146 @@
+package ru.practicum.shareit.client;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+class ResilientTransportTest {
+    private static final int WINDOW = 4;
+
+    private final CircuitBreaker circuitBreaker = CircuitBreaker.of("items", CircuitBreakerConfig.custom()
+            .failureRateThreshold(50)
+            .slowCallRateThreshold(50)
+            .slowCallDurationThreshold(Duration.ofMillis(20))
+            .slidingWindowSize(WINDOW)
+            .minimumNumberOfCalls(WINDOW)
+            .waitDurationInOpenState(Duration.ofMinutes(1))
+            .build());
+
+    @Test
+    void breakerShouldOpenOnServerErrorsTest() {
+        CountingTransport server = new CountingTransport(
+                () -> Mono.just(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of())));
+        ResilientTransport transport = transport(server, Bulkhead.ofDefaults("items"));
+
+        for (int i = 0; i < WINDOW; i++) {
+            Assertions.assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, get(transport).getStatusCode());
+        }
+
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertUnavailable(get(transport), "Server API items is unavailable");
+        Assertions.assertEquals(WINDOW, server.calls.get());
+    }
+
+    @Test
+    void breakerShouldOpenOnTimeoutsTest() {
+        CountingTransport server = new CountingTransport(() -> Mono.error(new TimeoutException("Read timed out")));
+        ResilientTransport transport = transport(server, Bulkhead.ofDefaults("items"));
+
+        for (int i = 0; i < WINDOW; i++) {
+            RuntimeException e = Assertions.assertThrows(RuntimeException.class, () -> get(transport));
+            Assertions.assertTrue(Exceptions.unwrap(e) instanceof TimeoutException);
+        }
+
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertUnavailable(get(transport), "Server API items is unavailable");
+        Assertions.assertEquals(WINDOW, server.calls.get());
+    }
+
+    @Test
+    void breakerShouldOpenOnSlowCallsTest() {
+        CountingTransport server = new CountingTransport(
+                () -> Mono.delay(Duration.ofMillis(50)).thenReturn(ResponseEntity.ok(Map.of())));
+        ResilientTransport transport = transport(server, Bulkhead.ofDefaults("items"));
+
+        for (int i = 0; i < WINDOW; i++) {
+            Assertions.assertEquals(HttpStatus.OK, get(transport).getStatusCode());
+        }
+
+        Assertions.assertEquals(CircuitBreaker.State.OPEN, circuitBreaker.getState());
+        assertUnavailable(get(transport), "Server API items is unavailable");
+        Assertions.assertEquals(WINDOW, server.calls.get());
+    }
+
+    @Test
+    void breakerShouldStayClosedOnClientErrorsTest() {
+        CountingTransport server = new CountingTransport(
+                () -> Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of())));
+        ResilientTransport transport = transport(server, Bulkhead.ofDefaults("items"));
+
+        for (int i = 0; i < WINDOW * 2; i++) {
+            Assertions.assertEquals(HttpStatus.NOT_FOUND, get(transport).getStatusCode());
+        }
+
+        Assertions.assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        Assertions.assertEquals(WINDOW * 2, server.calls.get());
+    }
+
+    @Test
+    void fullBulkheadShouldAnswerUnavailableTest() {
+        Sinks.One<ResponseEntity<Object>> pending = Sinks.one();
+        CountingTransport server = new CountingTransport(pending::asMono);
+        Bulkhead bulkhead = Bulkhead.of("items", BulkheadConfig.custom()
+                                                               .maxConcurrentCalls(1)
+                                                               .maxWaitDuration(Duration.ZERO)
+                                                               .build());
+        ResilientTransport transport = transport(server, bulkhead);
+
+        transport.exchange(HttpMethod.GET, "/1", new HttpHeaders(), null, null).subscribe();
+        assertUnavailable(get(transport), "Too many concurrent calls to server API items");
+        pending.tryEmitValue(ResponseEntity.ok(Map.of()));
+
+        Assertions.assertEquals(HttpStatus.OK, get(transport).getStatusCode());
+    }
+
+    private ResilientTransport transport(ServerTransport server, Bulkhead bulkhead) {
+        return new ResilientTransport(server, circuitBreaker, bulkhead);
+    }
+
+    private static ResponseEntity<Object> get(ServerTransport transport) {
+        return transport.exchange(HttpMethod.GET, "/1", new HttpHeaders(), null, null).block();
+    }
+
+    private static void assertUnavailable(ResponseEntity<Object> response, String error) {
+        Assertions.assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        Assertions.assertEquals(Map.of("error", error), response.getBody());
+    }
+
+    private static class CountingTransport implements ServerTransport {
+        private final AtomicInteger calls = new AtomicInteger();
+        private final Supplier<Mono<ResponseEntity<Object>>> responses;
+
+        CountingTransport(Supplier<Mono<ResponseEntity<Object>>> responses) {
+            this.responses = responses;
+        }
+
+        @Override
+        public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                     Map<String, Object> parameters, Object body) {
+            return Mono.defer(() -> {
+                calls.incrementAndGet();
+                return responses.get();
+            });
+        }
+
+        @Override
+        public boolean isBlocking() {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package ru.practicum.shareit.item;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.client.ServerTransport;
+import ru.practicum.shareit.client.ServerTransportFactory;
+import ru.practicum.shareit.item.dto.CommentDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+class ItemClientTest {
+    private VersionedItemServer server;
+    private ItemClient itemClient;
+
+    @BeforeEach
+    void setUp() {
+        server = new VersionedItemServer();
+        ServerTransportFactory transportFactory = Mockito.mock(ServerTransportFactory.class);
+        Mockito.when(transportFactory.create("/items")).thenReturn(server);
+        ResponseCache responseCache = new ResponseCache(100, Duration.ofMinutes(10), Duration.ofMinutes(1),
+                new SimpleMeterRegistry());
+        itemClient = new ItemClient(transportFactory, responseCache);
+    }
+
+    @Test
+    void freshItemShouldBeServedFromCacheTest() {
+        itemClient.getItemById(1, 1);
+        ResponseEntity<Object> response = itemClient.getItemById(1, 1);
+
+        Assertions.assertEquals(Map.of("id", 1, "version", 0), response.getBody());
+        Assertions.assertEquals(1, server.gets.size());
+    }
+
+    @Test
+    void patchItemShouldEvictCachedItemTest() {
+        itemClient.getItemById(1, 1);
+        itemClient.patchItem(1, 1, Map.of("name", "Drill"));
+        ResponseEntity<Object> response = itemClient.getItemById(1, 1);
+
+        Assertions.assertEquals(Map.of("id", 1, "version", 1), response.getBody());
+        Assertions.assertEquals(2, server.gets.size());
+        Assertions.assertTrue(server.gets.get(1).getIfNoneMatch().isEmpty());
+    }
+
+    @Test
+    void createCommentShouldEvictCachedItemForEveryUserTest() {
+        itemClient.getItemById(1, 1);
+        itemClient.getItemById(2, 1);
+        itemClient.createComment(2, 1, CommentDto.builder().withText("Good").build());
+
+        Assertions.assertEquals(Map.of("id", 1, "version", 1), itemClient.getItemById(1, 1).getBody());
+        Assertions.assertEquals(Map.of("id", 1, "version", 1), itemClient.getItemById(2, 1).getBody());
+        Assertions.assertEquals(4, server.gets.size());
+    }
+
+    @Test
+    void readDuringPatchShouldNotKeepOldItemCachedTest() {
+        itemClient.getItemById(1, 1);
+        server.duringWrite = () -> itemClient.getItemById(1, 1);
+        itemClient.patchItem(1, 1, Map.of("name", "Drill"));
+        server.duringWrite = () -> { };
+
+        Assertions.assertEquals(Map.of("id", 1, "version", 1), itemClient.getItemById(1, 1).getBody());
+    }
+
+    @Test
+    void writeShouldKeepOtherCachedItemsTest() {
+        itemClient.getItemById(1, 1);
+        itemClient.getItemById(1, 2);
+        itemClient.patchItem(2, 1, Map.of("name", "Drill"));
+
+        Assertions.assertEquals(Map.of("id", 1, "version", 0), itemClient.getItemById(1, 1).getBody());
+        Assertions.assertEquals(Map.of("id", 2, "version", 1), itemClient.getItemById(1, 2).getBody());
+        Assertions.assertEquals(3, server.gets.size());
+    }
+
+    /**
+     * Answers item reads with the item version in the body and the ETag, and bumps the version on every write,
+     * after running {@code duringWrite} as a read that races with the write.
+     */
+    private static class VersionedItemServer implements ServerTransport {
+        private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+        private final List<HttpHeaders> gets = new CopyOnWriteArrayList<>();
+        private volatile Runnable duringWrite = () -> { };
+
+        @Override
+        public Mono<ResponseEntity<Object>> exchange(HttpMethod method, String path, HttpHeaders headers,
+                                                     @Nullable Map<String, Object> parameters, @Nullable Object body) {
+            long itemId = Long.parseLong(path.split("/")[1]);
+            if (method != HttpMethod.GET) {
+                duringWrite.run();
+                versions.merge(itemId, 1, Integer::sum);
+                return Mono.just(ResponseEntity.ok(Map.of()));
+            }
+
+            gets.add(headers);
+            int version = versions.getOrDefault(itemId, 0);
+            String etag = "\"" + version + "\"";
+            if (headers.getIfNoneMatch().contains(etag)) {
+                return Mono.just(ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build());
+            }
+            return Mono.just(ResponseEntity.ok().eTag(etag).body(Map.of("id", (int) itemId, "version", version)));
+        }
+
+        @Override
+        public boolean isBlocking() {
+            return true;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.ratelimit;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.exceptions.RateLimitExceededException;
+import ru.practicum.shareit.handlers.ErrorHandler;
+import ru.practicum.shareit.user.UserClient;
+import ru.practicum.shareit.user.UserController;
+
+import java.util.Map;
+
+import static org.hamcrest.Matchers.is;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RateLimiterTest {
+
+    @Test
+    void rateLimitingShouldBeOffByDefaultTest() {
+        RateLimitProperties properties = new RateLimitProperties();
+        RateLimiter rateLimiter = new RateLimiter(properties, new SimpleMeterRegistry());
+
+        Assertions.assertFalse(properties.isEnabled());
+        for (int i = 0; i < 1000; i++) {
+            rateLimiter.acquire(RouteGroup.WRITE, 1L);
+        }
+    }
+
+    @Test
+    void userShouldBeRejectedOnceTheirBurstIsSpentTest() {
+        RateLimiter rateLimiter = rateLimiter(new RateLimitProperties.Group(1, 2, 1000, 1000));
+
+        rateLimiter.acquire(RouteGroup.WRITE, 1L);
+        rateLimiter.acquire(RouteGroup.WRITE, 1L);
+        RateLimitExceededException e = Assertions.assertThrows(RateLimitExceededException.class,
+                () -> rateLimiter.acquire(RouteGroup.WRITE, 1L));
+
+        Assertions.assertEquals("Too many requests from user with userId=1", e.getMessage());
+        Assertions.assertTrue(e.getRetryAfter().toMillis() > 0);
+    }
+
+    @Test
+    void usersAndRouteGroupsShouldHaveSeparateBudgetsTest() {
+        RateLimiter rateLimiter = rateLimiter(new RateLimitProperties.Group(1, 1, 1000, 1000));
+
+        rateLimiter.acquire(RouteGroup.WRITE, 1L);
+        rateLimiter.acquire(RouteGroup.WRITE, 2L);
+        rateLimiter.acquire(RouteGroup.READ, 1L);
+        Assertions.assertThrows(RateLimitExceededException.class, () -> rateLimiter.acquire(RouteGroup.WRITE, 1L));
+    }
+
+    @Test
+    void globalBudgetShouldLimitAllUsersTogetherTest() {
+        RateLimiter rateLimiter = rateLimiter(new RateLimitProperties.Group(1000, 1000, 1, 2));
+
+        rateLimiter.acquire(RouteGroup.WRITE, 1L);
+        rateLimiter.acquire(RouteGroup.WRITE, 2L);
+        RateLimitExceededException e = Assertions.assertThrows(RateLimitExceededException.class,
+                () -> rateLimiter.acquire(RouteGroup.WRITE, null));
+
+        Assertions.assertEquals("Too many requests", e.getMessage());
+    }
+
+    @Test
+    void rejectedRequestShouldGet429WithRetryAfterTest() throws Exception {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setEnabled(true);
+        properties.setRead(new RateLimitProperties.Group(0.5, 2, 1000, 1000));
+        RateLimiter rateLimiter = new RateLimiter(properties, new SimpleMeterRegistry());
+
+        UserClient userClient = Mockito.mock(UserClient.class);
+        Mockito.when(userClient.getUserById(Mockito.anyLong())).thenReturn(ResponseEntity.ok(Map.of()));
+        MockMvc mvc = MockMvcBuilders.standaloneSetup(new UserController(userClient))
+                                     .addInterceptors(new RateLimitInterceptor(rateLimiter))
+                                     .setControllerAdvice(new ErrorHandler())
+                                     .build();
+
+        for (int i = 0; i < 2; i++) {
+            mvc.perform(get("/users/1").header("X-Sharer-User-Id", 1))
+               .andExpect(status().isOk());
+        }
+        mvc.perform(get("/users/1").header("X-Sharer-User-Id", 1))
+           .andExpect(status().isTooManyRequests())
+           .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+           .andExpect(jsonPath("$.error", is("Too many requests from user with userId=1")));
+        mvc.perform(get("/users/1").header("X-Sharer-User-Id", 2))
+           .andExpect(status().isOk());
+
+        Mockito.verify(userClient, Mockito.times(3)).getUserById(1L);
+    }
+
+    private static RateLimiter rateLimiter(RateLimitProperties.Group write) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setEnabled(true);
+        properties.setWrite(write);
+        return new RateLimiter(properties, new SimpleMeterRegistry());
+    }
+}
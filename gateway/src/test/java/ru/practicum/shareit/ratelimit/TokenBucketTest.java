@@ -0,0 +1,36 @@
+package ru.practicum.shareit.ratelimit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+class TokenBucketTest {
+    private static final long SECOND = 1_000_000_000L;
+
+    @Test
+    void bucketShouldAllowBurstAndThenReturnWaitTest() {
+        TokenBucket bucket = new TokenBucket(2, 3);
+
+        for (int i = 0; i < 3; i++) {
+            Assertions.assertEquals(0, bucket.tryAcquire(0));
+        }
+        Assertions.assertEquals(SECOND / 2, bucket.tryAcquire(0));
+    }
+
+    @Test
+    void bucketShouldRefillAtItsRateTest() {
+        TokenBucket bucket = new TokenBucket(2, 1);
+
+        Assertions.assertEquals(0, bucket.tryAcquire(0));
+        Assertions.assertEquals(SECOND / 4, bucket.tryAcquire(SECOND / 4));
+        Assertions.assertEquals(0, bucket.tryAcquire(SECOND / 2));
+    }
+
+    @Test
+    void idleBucketShouldNotSaveMoreThanItsCapacityTest() {
+        TokenBucket bucket = new TokenBucket(10, 2);
+
+        Assertions.assertEquals(0, bucket.tryAcquire(60 * SECOND));
+        Assertions.assertEquals(0, bucket.tryAcquire(60 * SECOND));
+        Assertions.assertTrue(bucket.tryAcquire(60 * SECOND) > 0);
+    }
+}
@@ -1,16 +1,26 @@
 package ru.practicum.shareit.booking;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.service.BookingService;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.function.LongSupplier;
 
 @RestController
 @RequestMapping(path = "/bookings")
 public class BookingController {
+    private static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     private final BookingService bookingService;
 
     @Autowired
@@ -25,35 +35,75 @@ public class BookingController {
         return bookingService.approveOrRejectBooking(bookingId, approved, userId);
     }
 
+    @PatchMapping
+    public List<BookingDecisionDto> approveOrRejectBookings(@RequestBody List<Long> bookingIds,
+                                                            @RequestParam boolean approved,
+                                                            @RequestHeader("X-Sharer-User-Id") long userId) {
+        return bookingService.approveOrRejectBookings(bookingIds, approved, userId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(@PathVariable long bookingId, @RequestHeader("X-Sharer-User-Id") long userId) {
         return bookingService.getBookingById(bookingId, userId);
     }
 
     @GetMapping()
-    public List<BookingDto> getAllBookingsByBooker(@RequestParam(defaultValue = "ALL") String state,
-                                                   @RequestHeader("X-Sharer-User-Id") long userId,
-                                                   @RequestParam(required = false) Integer from,
-                                                   @RequestParam(required = false) Integer size) {
-        if (from != null && size != null) {
-            return bookingService.getAllBookingsByBooker(state, userId, from, size);
+    public ResponseEntity<List<BookingDto>> getAllBookingsByBooker(@RequestParam(defaultValue = "ALL") String state,
+                                                                   @RequestHeader("X-Sharer-User-Id") long userId,
+                                                                   @RequestParam(required = false) Integer from,
+                                                                   @RequestParam(required = false) Integer size,
+                                                                   @RequestParam(required = false) String after,
+                                                                   @RequestParam(defaultValue = "false") boolean withTotal) {
+        if (after != null && size != null) {
+            BookingCursor cursor = BookingCursor.decode(after);
+            return toResponse(bookingService.getAllBookingsByBooker(state, userId, cursor, size), cursor.getNow(),
+                    withTotal ? () -> bookingService.countBookingsByBooker(state, userId) : null);
+        } else if (from != null && size != null) {
+            LocalDateTime now = LocalDateTime.now();
+            return toResponse(bookingService.getAllBookingsByBooker(state, userId, from, size, now), now,
+                    withTotal ? () -> bookingService.countBookingsByBooker(state, userId) : null);
         } else {
-            return bookingService.getAllBookingsByBooker(state, userId);
+            return ResponseEntity.ok(bookingService.getAllBookingsByBooker(state, userId));
         }
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllBookingsByOwner(@RequestParam(defaultValue = "ALL") String state,
-                                                  @RequestHeader("X-Sharer-User-Id") long userId,
-                                                  @RequestParam(required = false) Integer from,
-                                                  @RequestParam(required = false) Integer size) {
-        if (from != null && size != null) {
-            return bookingService.getAllBookingsByOwner(state, userId, from, size);
+    public ResponseEntity<List<BookingDto>> getAllBookingsByOwner(@RequestParam(defaultValue = "ALL") String state,
+                                                                  @RequestHeader("X-Sharer-User-Id") long userId,
+                                                                  @RequestParam(required = false) Integer from,
+                                                                  @RequestParam(required = false) Integer size,
+                                                                  @RequestParam(required = false) String after,
+                                                                  @RequestParam(defaultValue = "false") boolean withTotal) {
+        if (after != null && size != null) {
+            BookingCursor cursor = BookingCursor.decode(after);
+            return toResponse(bookingService.getAllBookingsByOwner(state, userId, cursor, size), cursor.getNow(),
+                    withTotal ? () -> bookingService.countBookingsByOwner(state, userId) : null);
+        } else if (from != null && size != null) {
+            LocalDateTime now = LocalDateTime.now();
+            return toResponse(bookingService.getAllBookingsByOwner(state, userId, from, size, now), now,
+                    withTotal ? () -> bookingService.countBookingsByOwner(state, userId) : null);
         } else {
-            return bookingService.getAllBookingsByOwner(state, userId);
+            return ResponseEntity.ok(bookingService.getAllBookingsByOwner(state, userId));
         }
     }
 
+    /**
+     * Pages are read without counting the matching bookings. The next cursor is only sent when the slice has a
+     * next page, and the total only when the client asks for it. The cursor carries the moment the page was
+     * read against, so that the following pages are read against it too.
+     */
+    private static ResponseEntity<List<BookingDto>> toResponse(Slice<BookingDto> bookings, LocalDateTime now,
+                                                               @Nullable LongSupplier total) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (bookings.hasNext() && bookings.hasContent()) {
+            List<BookingDto> content = bookings.getContent();
+            response.header(NEXT_CURSOR_HEADER, BookingCursor.of(content.get(content.size() - 1), now).encode());
+        }
+        if (total != null) {
+            response.header(TOTAL_COUNT_HEADER, String.valueOf(total.getAsLong()));
+        }
+        return response.body(bookings.getContent());
+    }
 
     @PostMapping
     public BookingDto createBooking(@Validated @RequestBody BookingDto bookingDto,
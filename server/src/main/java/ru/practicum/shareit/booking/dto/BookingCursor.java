@@ -0,0 +1,49 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import ru.practicum.shareit.exceptions.InvalidPageableParametersException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+import static java.lang.String.format;
+
+/**
+ * Position in a booking list: the start and id of the last booking read, and the moment the list's states are
+ * evaluated against, which the next page keeps instead of taking the current time.
+ */
+@Getter
+@AllArgsConstructor
+public class BookingCursor {
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime start;
+    private final long id;
+    private final LocalDateTime now;
+
+    public static BookingCursor of(BookingDto bookingDto, LocalDateTime now) {
+        return new BookingCursor(bookingDto.getStart(), bookingDto.getId(), now);
+    }
+
+    public static BookingCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = value.split(Pattern.quote(SEPARATOR), -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException(value);
+            }
+            return new BookingCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]), LocalDateTime.parse(parts[2]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidPageableParametersException(format("Invalid cursor %s", token));
+        }
+    }
+
+    public String encode() {
+        String value = start + SEPARATOR + id + SEPARATOR + now;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,25 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder(setterPrefix = "with")
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingDecisionDto {
+    private long bookingId;
+    private Result result;
+
+    public enum Result {
+        APPROVED,
+        REJECTED,
+        ALREADY_APPROVED,
+        ALREADY_REJECTED,
+        ALREADY_CANCELED,
+        NOT_OWNER,
+        NOT_FOUND
+    }
+}
@@ -16,11 +16,23 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedSubgraph;
 import javax.persistence.Table;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "bookings", schema = "public")
+@NamedEntityGraph(name = Booking.LIST_GRAPH,
+        attributeNodes = @NamedAttributeNode(value = "item", subgraph = "item"),
+        subgraphs = {
+                @NamedSubgraph(name = "item", attributeNodes = {
+                        @NamedAttributeNode("owner"),
+                        @NamedAttributeNode(value = "request", subgraph = "request")
+                }),
+                @NamedSubgraph(name = "request", attributeNodes = @NamedAttributeNode("requestor"))
+        })
 @DynamicUpdate
 @NoArgsConstructor
 @AllArgsConstructor
@@ -30,6 +42,12 @@ import java.time.LocalDateTime;
 @ToString
 @JsonIgnoreProperties({"hibernateLazyInitializer"})
 public class Booking {
+    /**
+     * Graph for booking lists: the item with its eager owner and request is joined into the list query, the
+     * booker stays a proxy since the DTO only needs its id.
+     */
+    public static final String LIST_GRAPH = "Booking.list";
+
     @Id
     @GeneratedValue(generator = "PK_BOOKINGS", strategy = GenerationType.IDENTITY)
     private long id;
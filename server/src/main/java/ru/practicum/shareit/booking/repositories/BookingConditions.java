@@ -0,0 +1,82 @@
+package ru.practicum.shareit.booking.repositories;
+
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Role, state and cursor conditions of the booking list reads. Each condition is written once against the
+ * columns of a {@link Dialect}, so the JPQL of {@link BookingRepositoryCustomImpl} and the SQL of
+ * {@link BookingJdbcRepository} always select the same bookings. A new state only needs an entry in
+ * {@link #STATE_CONDITIONS}.
+ */
+final class BookingConditions {
+    private static final Map<BookingState, Function<Dialect, String>> STATE_CONDITIONS = new EnumMap<>(Map.of(
+            BookingState.ALL, d -> "",
+            BookingState.CURRENT, d -> d.start + " < :now and " + d.end + " > :now",
+            BookingState.PAST, d -> d.end + " < :now",
+            BookingState.FUTURE, d -> d.start + " > :now",
+            BookingState.WAITING, d -> "b.status = " + d.status(BookingStatus.WAITING),
+            BookingState.REJECTED, d -> "b.status = " + d.status(BookingStatus.REJECTED)
+    ));
+
+    private BookingConditions() {
+    }
+
+    /**
+     * Condition selecting the bookings of the user; for the owner it refers to the booked item as {@code i}.
+     */
+    static String role(BookingQuery.Role role, Dialect dialect) {
+        return (role == BookingQuery.Role.OWNER ? dialect.owner : dialect.booker) + " = :userId";
+    }
+
+    /**
+     * Condition selecting the bookings in the state, empty when every booking matches.
+     */
+    static String state(BookingState state, Dialect dialect) {
+        Function<Dialect, String> condition = STATE_CONDITIONS.get(state);
+        if (condition == null) {
+            throw new IllegalArgumentException("No condition for booking state " + state);
+        }
+        return condition.apply(dialect);
+    }
+
+    /**
+     * Condition selecting the bookings strictly after the cursor in the start and id descending order.
+     */
+    static String cursor(Dialect dialect) {
+        return "(" + dialect.start + " < :cursorStart or (" + dialect.start + " = :cursorStart and b.id < :cursorId))";
+    }
+
+    enum Dialect {
+        JPQL("b.booker.id", "i.owner.id", "b.start", "b.end") {
+            @Override
+            String status(BookingStatus status) {
+                return BookingStatus.class.getName() + "." + status.name();
+            }
+        },
+        SQL("b.booker_id", "i.owner_id", "b.start_date", "b.end_date") {
+            @Override
+            String status(BookingStatus status) {
+                return "'" + status.name() + "'";
+            }
+        };
+
+        private final String booker;
+        private final String owner;
+        private final String start;
+        private final String end;
+
+        Dialect(String booker, String owner, String start, String end) {
+            this.booker = booker;
+            this.owner = owner;
+            this.start = start;
+            this.end = end;
+        }
+
+        abstract String status(BookingStatus status);
+    }
+}
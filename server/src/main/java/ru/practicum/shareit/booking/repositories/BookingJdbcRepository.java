@@ -0,0 +1,81 @@
+package ru.practicum.shareit.booking.repositories;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Read-only counterpart of {@link BookingRepository#findBookings} that selects only the columns of
+ * {@link BookingDto} and maps rows straight to it, without entities or the persistence context. It renders the
+ * same {@link BookingConditions} as the JPQL reads, in SQL.
+ */
+@Repository
+public class BookingJdbcRepository {
+    private static final RowMapper<BookingDto> BOOKING_DTO_MAPPER = (rs, rowNum) -> BookingDto.builder()
+            .withId(rs.getLong("id"))
+            .withStart(rs.getObject("start_date", LocalDateTime.class))
+            .withEnd(rs.getObject("end_date", LocalDateTime.class))
+            .withStatus(rs.getString("status") != null ? BookingStatus.valueOf(rs.getString("status")) : null)
+            .withItem(BookingDto.Item.builder()
+                                     .withId(rs.getLong("item_id"))
+                                     .withName(rs.getString("item_name"))
+                                     .build())
+            .withBooker(BookingDto.Booker.builder()
+                                         .withId(rs.getLong("booker_id"))
+                                         .build())
+            .build();
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final Map<String, String> statements = new ConcurrentHashMap<>();
+
+    @Autowired
+    public BookingJdbcRepository(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<BookingDto> findBookings(BookingQuery query) {
+        MapSqlParameterSource parameters = new MapSqlParameterSource()
+                .addValue("userId", query.getUserId())
+                .addValue("now", query.getNow())
+                .addValue("cursorStart", query.getCursorStart())
+                .addValue("cursorId", query.getCursorId())
+                .addValue("limit", query.getLimit())
+                .addValue("offset", query.getOffset());
+        return jdbcTemplate.query(statement(query), parameters, BOOKING_DTO_MAPPER);
+    }
+
+    private String statement(BookingQuery query) {
+        String key = query.getRole() + ":" + query.getState() + ":" + query.hasCursor() + ":" + (query.getLimit() != null);
+        return statements.computeIfAbsent(key, k -> render(query));
+    }
+
+    private static String render(BookingQuery query) {
+        String stateCondition = BookingConditions.state(query.getState(), BookingConditions.Dialect.SQL);
+
+        StringBuilder sql = new StringBuilder(
+                "select b.id, b.start_date, b.end_date, b.status, b.booker_id, i.id as item_id, i.name as item_name " +
+                "from bookings b join items i on i.id = b.item_id ");
+        sql.append("where ").append(BookingConditions.role(query.getRole(), BookingConditions.Dialect.SQL));
+        if (!stateCondition.isEmpty()) {
+            sql.append(" and ").append(stateCondition);
+        }
+        if (query.hasCursor()) {
+            sql.append(" and ").append(BookingConditions.cursor(BookingConditions.Dialect.SQL));
+        }
+        sql.append(" order by b.start_date desc, b.id desc");
+        if (query.getLimit() != null) {
+            sql.append(" limit :limit");
+        }
+        sql.append(" offset :offset");
+        return sql.toString();
+    }
+}
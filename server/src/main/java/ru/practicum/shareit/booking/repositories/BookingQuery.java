@@ -0,0 +1,44 @@
+package ru.practicum.shareit.booking.repositories;
+
+import lombok.Builder;
+import lombok.Getter;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+
+/**
+ * Parameters of a booking list read: whose bookings, in which state, relative to which moment, and which
+ * part of the list. Bookings are always ordered by start and id, newest first.
+ */
+@Getter
+@Builder(setterPrefix = "with")
+public class BookingQuery {
+    private final Role role;
+    private final long userId;
+    private final BookingState state;
+    /**
+     * Moment the state is evaluated against. Pages after the first take it from the cursor, so that every page
+     * of a list sees the same past and future.
+     */
+    @Builder.Default
+    private final LocalDateTime now = LocalDateTime.now();
+    /**
+     * Start and id of the last booking of the previous page, the list continues strictly after it.
+     */
+    private final LocalDateTime cursorStart;
+    private final Long cursorId;
+    private final int offset;
+    /**
+     * Maximum number of bookings to read, all of them when null.
+     */
+    private final Integer limit;
+
+    public boolean hasCursor() {
+        return cursorStart != null && cursorId != null;
+    }
+
+    public enum Role {
+        BOOKER,
+        OWNER
+    }
+}
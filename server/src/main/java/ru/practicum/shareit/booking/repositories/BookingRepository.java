@@ -1,109 +1,76 @@
 package ru.practicum.shareit.booking.repositories;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.validation.annotation.Validated;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
-import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.LockModeType;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Validated
-public interface BookingRepository extends PagingAndSortingRepository<Booking, Long> {
+public interface BookingRepository extends PagingAndSortingRepository<Booking, Long>, BookingRepositoryCustom {
+
+    @EntityGraph(Booking.LIST_GRAPH)
+    Optional<Booking> findWithItemById(long bookingId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b from Booking b join b.item i " +
+            "where b.id in ?1 and i.owner.id = ?2 " +
+            "order by b.id")
+    List<Booking> findOwnedByIdInForUpdate(Collection<Long> bookingIds, long ownerId);
+
+    @Query("select b.id from Booking b where b.id in ?1")
+    List<Long> findExistingIds(Collection<Long> bookingIds);
+
+    /**
+     * Moves the bookings from the expected status to the new one, but only those whose item belongs to the
+     * given owner. Concurrent transitions of the same booking are serialized by the row lock and only the first
+     * one still sees the expected status, so the others update nothing.
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.status = ?4 " +
+            "where b.id in ?1 and b.status = ?3 " +
+            "and b.item.id in (select i.id from Item i where i.owner.id = ?2)")
+    int updateStatus(Collection<Long> bookingIds, long ownerId, BookingStatus expectedStatus, BookingStatus status);
 
     @Query("select b from Booking b " +
-            "where b.booker = ?1 and b.end < current_timestamp " +
-            "order by b.start desc ")
-    List<Booking> findPastBookingsByBooker(User booker);
+            "where b.item.id = ?1 and b.status = ?2 and b.end < ?3 " +
+            "order by b.start desc, b.id desc")
+    List<Booking> findLastFinishedBookings(long itemId, BookingStatus status, LocalDateTime currentTime, Pageable pageable);
 
     @Query("select b from Booking b " +
-            "where b.booker = ?1 and b.end < current_timestamp " +
-            "order by b.start desc ")
-    Page<Booking> findPastBookingsByBooker(User booker, Pageable pageable);
-
-    @Query("select b from Booking b left join b.item i " +
-            "where i.owner = ?1 and b.end < current_timestamp " +
-            "order by b.start desc ")
-    List<Booking> findPastBookingsByOwner(User owner);
-
-    @Query("select b from Booking b left join b.item i " +
-            "where i.owner = ?1 and b.end < current_timestamp " +
-            "order by b.start desc ")
-    Page<Booking> findPastBookingsByOwner(User owner, Pageable pageable);
-
-    @Query("select b from Booking b " +
-            "where b.booker = ?1 and b.start > current_timestamp " +
-            "order by b.start desc ")
-    List<Booking> findFutureBookingsByBooker(User booker);
-
-    @Query("select b from Booking b " +
-            "where b.booker = ?1 and b.start > current_timestamp " +
-            "order by b.start desc ")
-    Page<Booking> findFutureBookingsByBooker(User booker, Pageable pageable);
-
-    @Query("select b from Booking b left join b.item i " +
-            "where i.owner = ?1 and b.start > current_timestamp " +
-            "order by b.start desc ")
-    List<Booking> findFutureBookingsByOwner(User owner);
-
-    @Query("select b from Booking b left join b.item i " +
-            "where i.owner = ?1 and b.start > current_timestamp " +
-            "order by b.start desc ")
-    Page<Booking> findFutureBookingsByOwner(User owner, Pageable pageable);
-
-    @Query("select b from Booking b " +
-            "where b.booker = ?1 and b.start < current_timestamp and b.end > current_timestamp " +
-            "order by b.start desc ")
-    List<Booking> findCurrentBookingsByBooker(User booker);
-
-    @Query("select b from Booking b " +
-            "where b.booker = ?1 and b.start < current_timestamp and b.end > current_timestamp " +
-            "order by b.start desc ")
-    Page<Booking> findCurrentBookingsByBooker(User booker, Pageable pageable);
-
-    @Query("select b from Booking b left join b.item i " +
-            "where i.owner = ?1 and b.start < current_timestamp and b.end > current_timestamp " +
-            "order by b.start desc ")
-    List<Booking> findCurrentBookingsByOwner(User owner);
-
-    @Query("select b from Booking b left join b.item i " +
-            "where i.owner = ?1 and b.start < current_timestamp and b.end > current_timestamp " +
-            "order by b.start desc ")
-    Page<Booking> findCurrentBookingsByOwner(User owner, Pageable pageable);
-
-    List<Booking> findByBookerOrderByStartDesc(User booker);
-
-    Page<Booking> findByBookerOrderByStartDesc(User booker, Pageable pageable);
-
-    @Query("select b from Booking b left join b.item i " +
-            "where i.owner = ?1 " +
-            "order by b.start desc ")
-    List<Booking> findByOwnerOrderByStartDesc(User owner);
-
-    @Query("select b from Booking b left join b.item i " +
-            "where i.owner = ?1 " +
-            "order by b.start desc ")
-    Page<Booking> findByOwnerOrderByStartDesc(User owner, Pageable pageable);
-
-    List<Booking> findByBookerAndStatusOrderByStartDesc(User booker, BookingStatus status);
-
-    Page<Booking> findByBookerAndStatusOrderByStartDesc(User booker, BookingStatus status, Pageable pageable);
-
-    @Query("select b from Booking b left join b.item i " +
-            "where i.owner = ?1 and b.status = ?2 " +
-            "order by b.start desc ")
-    List<Booking> findByOwnerAndStatusOrderByStartDesc(User owner, BookingStatus status);
-
-    @Query("select b from Booking b left join b.item i " +
-            "where i.owner = ?1 and b.status = ?2 " +
-            "order by b.start desc ")
-    Page<Booking> findByOwnerAndStatusOrderByStartDesc(User owner, BookingStatus status, Pageable pageable);
-
-    @Query("select b from Booking b left join b.item i " +
-            "where b.item.id = ?1 and i.owner.id = ?2 " +
-            "order by b.start desc ")
-    List<Booking> findByItemIdAndOwnerIdOrderByStartDesc(long itemId, long ownerId);
+            "where b.item.id = ?1 and b.status = ?2 and b.start > ?3 " +
+            "order by b.start, b.id")
+    List<Booking> findNextUpcomingBookings(long itemId, BookingStatus status, LocalDateTime currentTime, Pageable pageable);
+
+    @Query("select min(b.end) from Booking b " +
+            "where b.item.id = ?1 and b.status = ?2 and b.end > ?3")
+    LocalDateTime findNextEnd(long itemId, BookingStatus status, LocalDateTime currentTime);
+
+    @Query("select count(b) from Booking b " +
+            "where b.item.id = ?1")
+    long countByItemId(long itemId);
+
+    @Query("select distinct b.item.id from Booking b " +
+            "where b.booker.id = ?1")
+    List<Long> findItemIdsByBookerId(long bookerId);
+
+    @Query("select count(b) > 0 from Booking b " +
+            "where b.item.id = ?1 and b.status in ?4 " +
+            "and b.start < ?3 and b.end > ?2")
+    boolean existsOverlappingBooking(long itemId, LocalDateTime start, LocalDateTime end,
+                                     Collection<BookingStatus> statuses);
+
+    @Query("select count(b) > 0 from Booking b " +
+            "where b.booker.id = ?1 and b.item.id = ?2 and b.status = ?3 and b.end < ?4")
+    boolean existsFinishedBooking(long bookerId, long itemId, BookingStatus status, LocalDateTime now);
 }
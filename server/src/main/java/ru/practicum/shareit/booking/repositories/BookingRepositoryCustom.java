@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.repositories;
+
+import ru.practicum.shareit.booking.model.Booking;
+
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+
+    List<Booking> findBookings(BookingQuery query);
+
+    long countBookings(BookingQuery query);
+}
@@ -0,0 +1,87 @@
+package ru.practicum.shareit.booking.repositories;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import ru.practicum.shareit.booking.model.Booking;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import javax.persistence.TypedQuery;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Composes booking list queries from a role, a state condition and an optional cursor. Each combination
+ * always renders the same JPQL, which is built once and kept here, so Hibernate compiles one plan per
+ * combination and reuses it from its query plan cache. The conditions come from {@link BookingConditions}.
+ */
+public class BookingRepositoryCustomImpl implements BookingRepositoryCustom {
+    private final Map<String, String> statements = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findBookings(BookingQuery bookingQuery) {
+        TypedQuery<Booking> query = entityManager.createQuery(statement(bookingQuery, false), Booking.class)
+                                                 .setHint(EntityGraph.EntityGraphType.FETCH.getKey(),
+                                                         entityManager.getEntityGraph(Booking.LIST_GRAPH))
+                                                 .setFirstResult(bookingQuery.getOffset());
+        if (bookingQuery.getLimit() != null) {
+            query.setMaxResults(bookingQuery.getLimit());
+        }
+        return bind(query, bookingQuery).getResultList();
+    }
+
+    @Override
+    public long countBookings(BookingQuery bookingQuery) {
+        TypedQuery<Long> query = entityManager.createQuery(statement(bookingQuery, true), Long.class);
+        return bind(query, bookingQuery).getSingleResult();
+    }
+
+    private String statement(BookingQuery query, boolean count) {
+        String key = query.getRole() + ":" + query.getState() + ":" + query.hasCursor() + ":" + count;
+        return statements.computeIfAbsent(key, k -> render(query, count));
+    }
+
+    private static String render(BookingQuery query, boolean count) {
+        String stateCondition = BookingConditions.state(query.getState(), BookingConditions.Dialect.JPQL);
+
+        StringBuilder jpql = new StringBuilder(count ? "select count(b) from Booking b " : "select b from Booking b ");
+        if (query.getRole() == BookingQuery.Role.OWNER) {
+            jpql.append("join b.item i ");
+        }
+        jpql.append("where ").append(BookingConditions.role(query.getRole(), BookingConditions.Dialect.JPQL));
+        if (!stateCondition.isEmpty()) {
+            jpql.append(" and ").append(stateCondition);
+        }
+        if (query.hasCursor()) {
+            jpql.append(" and ").append(BookingConditions.cursor(BookingConditions.Dialect.JPQL));
+        }
+        if (!count) {
+            jpql.append(" order by b.start desc, b.id desc");
+        }
+        return jpql.toString();
+    }
+
+    private static <T extends Query> T bind(T query, BookingQuery bookingQuery) {
+        query.setParameter("userId", bookingQuery.getUserId());
+        query.getParameters().forEach(parameter -> {
+            switch (parameter.getName()) {
+                case "now":
+                    query.setParameter("now", bookingQuery.getNow());
+                    break;
+                case "cursorStart":
+                    query.setParameter("cursorStart", bookingQuery.getCursorStart());
+                    break;
+                case "cursorId":
+                    query.setParameter("cursorId", bookingQuery.getCursorId());
+                    break;
+                default:
+                    break;
+            }
+        });
+        return query;
+    }
+}
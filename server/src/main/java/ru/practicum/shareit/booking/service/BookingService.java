@@ -1,22 +1,37 @@
 package ru.practicum.shareit.booking.service;
 
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface BookingService {
 
     BookingDto approveOrRejectBooking(long bookingId, boolean approved, long userId);
 
+    List<BookingDecisionDto> approveOrRejectBookings(Collection<Long> bookingIds, boolean approved, long userId);
+
     BookingDto getBookingById(long bookingId, long userId);
 
     List<BookingDto> getAllBookingsByBooker(String status, long userId);
 
-    List<BookingDto> getAllBookingsByBooker(String status, long userId, int from, int size);
+    Slice<BookingDto> getAllBookingsByBooker(String status, long userId, int from, int size, LocalDateTime now);
+
+    Slice<BookingDto> getAllBookingsByBooker(String status, long userId, BookingCursor after, int size);
+
+    long countBookingsByBooker(String state, long userId);
 
     List<BookingDto> getAllBookingsByOwner(String state, long userId);
 
-    List<BookingDto> getAllBookingsByOwner(String state, long userId, int from, int size);
+    Slice<BookingDto> getAllBookingsByOwner(String state, long userId, int from, int size, LocalDateTime now);
+
+    Slice<BookingDto> getAllBookingsByOwner(String state, long userId, BookingCursor after, int size);
+
+    long countBookingsByOwner(String state, long userId);
 
     BookingDto createBooking(long userId, BookingDto bookingDto);
 }
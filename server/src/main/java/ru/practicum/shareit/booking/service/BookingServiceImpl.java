@@ -1,82 +1,200 @@
 package ru.practicum.shareit.booking.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.mappers.BookingMapper;
+import ru.practicum.shareit.booking.repositories.BookingJdbcRepository;
+import ru.practicum.shareit.booking.repositories.BookingQuery;
 import ru.practicum.shareit.booking.repositories.BookingRepository;
 import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.exceptions.ActionNotAllowedException;
 import ru.practicum.shareit.exceptions.BookingAlreadyApproved;
 import ru.practicum.shareit.exceptions.BookingNotFoundException;
+import ru.practicum.shareit.exceptions.BookingOverlapException;
 import ru.practicum.shareit.exceptions.InvalidPageableParametersException;
 import ru.practicum.shareit.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.exceptions.ItemUnavailableException;
+import ru.practicum.shareit.exceptions.TooManyBookingsException;
 import ru.practicum.shareit.exceptions.UnsupportedStateException;
 import ru.practicum.shareit.exceptions.UserMismatchException;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
 import ru.practicum.shareit.item.repositories.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.item.summary.ItemBookingSummaries;
+import ru.practicum.shareit.user.UserCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.utils.EnumUtils;
 import ru.practicum.shareit.utils.PageableUtils;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
 import static ru.practicum.shareit.booking.mappers.BookingMapper.toBooking;
 import static ru.practicum.shareit.booking.mappers.BookingMapper.toBookingDto;
+import static ru.practicum.shareit.booking.repositories.BookingQuery.Role.BOOKER;
+import static ru.practicum.shareit.booking.repositories.BookingQuery.Role.OWNER;
 import static ru.practicum.shareit.booking.model.BookingStatus.*;
 
 @Service
 public class BookingServiceImpl implements BookingService {
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final BookingRepository bookingRepository;
+    private final ItemBookingSummaries itemBookingSummaries;
+    private final BookingJdbcRepository bookingJdbcRepository;
+    private final Set<BookingQuery.Role> jdbcReadRoles;
+    private final int maxBulkDecisionSize;
 
     @Autowired
     public BookingServiceImpl(ItemRepository itemRepository,
-                              UserRepository userRepository,
-                              BookingRepository bookingRepository) {
+                              UserCache userCache,
+                              BookingRepository bookingRepository,
+                              ItemBookingSummaries itemBookingSummaries,
+                              BookingJdbcRepository bookingJdbcRepository,
+                              @Value("${shareit.booking.jdbc-read.booker:true}") boolean jdbcReadByBooker,
+                              @Value("${shareit.booking.jdbc-read.owner:true}") boolean jdbcReadByOwner,
+                              @Value("${shareit.booking.bulk-decision.max-size:100}") int maxBulkDecisionSize) {
         this.itemRepository = itemRepository;
-        this.userRepository = userRepository;
+        this.userCache = userCache;
         this.bookingRepository = bookingRepository;
+        this.itemBookingSummaries = itemBookingSummaries;
+        this.bookingJdbcRepository = bookingJdbcRepository;
+        this.jdbcReadRoles = EnumSet.noneOf(BookingQuery.Role.class);
+        if (jdbcReadByBooker) {
+            jdbcReadRoles.add(BOOKER);
+        }
+        if (jdbcReadByOwner) {
+            jdbcReadRoles.add(OWNER);
+        }
+        this.maxBulkDecisionSize = maxBulkDecisionSize;
     }
 
+    @Transactional
     @Override
     public BookingDto approveOrRejectBooking(long bookingId, boolean approved, long userId) {
-        Booking booking = bookingRepository.findById(bookingId)
+        if (bookingRepository.updateStatus(List.of(bookingId), userId, WAITING, approved ? APPROVED : REJECTED) == 0) {
+            throw rejectedTransition(bookingId, userId);
+        }
+
+        Booking booking = bookingRepository.findWithItemById(bookingId)
+                                           .orElseThrow(() -> new BookingNotFoundException(
+                                                   format("Booking with bookingId=%s is not found", bookingId))
+                                           );
+        itemBookingSummaries.refresh(booking.getItem().getId());
+        return toBookingDto(booking);
+    }
+
+    /**
+     * Locks the requested bookings owned by the user, decides on each of them and moves all the waiting ones
+     * with a single update. Bookings of other owners are never locked. Bookings that cannot be moved are
+     * reported instead of failing the whole request.
+     */
+    @Transactional
+    @Override
+    public List<BookingDecisionDto> approveOrRejectBookings(Collection<Long> bookingIds, boolean approved, long userId) {
+        Set<Long> ids = new LinkedHashSet<>(bookingIds);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        if (ids.size() > maxBulkDecisionSize) {
+            throw new TooManyBookingsException(format("Cannot decide on %s bookings at once, the limit is %s",
+                    ids.size(), maxBulkDecisionSize));
+        }
+
+        Map<Long, Booking> bookings = bookingRepository.findOwnedByIdInForUpdate(ids, userId)
+                                                       .stream()
+                                                       .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Set<Long> existingIds = new HashSet<>(bookings.keySet());
+        if (existingIds.size() < ids.size()) {
+            existingIds.addAll(bookingRepository.findExistingIds(ids));
+        }
+
+        List<BookingDecisionDto> decisions = new ArrayList<>();
+        List<Long> waitingIds = new ArrayList<>();
+        Set<Long> itemIds = new HashSet<>();
+        for (Long id : ids) {
+            Booking booking = bookings.get(id);
+            BookingDecisionDto.Result result;
+            if (!existingIds.contains(id)) {
+                result = BookingDecisionDto.Result.NOT_FOUND;
+            } else if (booking == null) {
+                result = BookingDecisionDto.Result.NOT_OWNER;
+            } else if (booking.getStatus() == WAITING) {
+                waitingIds.add(id);
+                itemIds.add(booking.getItem().getId());
+                result = approved ? BookingDecisionDto.Result.APPROVED : BookingDecisionDto.Result.REJECTED;
+            } else {
+                result = alreadyDecided(booking.getStatus());
+            }
+            decisions.add(BookingDecisionDto.builder()
+                                            .withBookingId(id)
+                                            .withResult(result)
+                                            .build());
+        }
+
+        if (!waitingIds.isEmpty()) {
+            bookingRepository.updateStatus(waitingIds, userId, WAITING, approved ? APPROVED : REJECTED);
+            itemIds.forEach(itemBookingSummaries::refresh);
+        }
+        return decisions;
+    }
+
+    private static BookingDecisionDto.Result alreadyDecided(BookingStatus status) {
+        switch (status) {
+            case APPROVED:
+                return BookingDecisionDto.Result.ALREADY_APPROVED;
+            case REJECTED:
+                return BookingDecisionDto.Result.ALREADY_REJECTED;
+            default:
+                return BookingDecisionDto.Result.ALREADY_CANCELED;
+        }
+    }
+
+    /**
+     * Explains why the conditional status update did not touch the booking.
+     */
+    private RuntimeException rejectedTransition(long bookingId, long userId) {
+        Booking booking = bookingRepository.findWithItemById(bookingId)
                                            .orElseThrow(() -> new BookingNotFoundException(
                                                    format("Booking with bookingId=%s is not found", bookingId))
                                            );
 
         if (booking.getBooker().getId() == userId) {
-            throw new ActionNotAllowedException(
+            return new ActionNotAllowedException(
                     format("Booker with userId=%s is not allowed to approve his(her) booking requests", userId)
             );
         }
 
         if (booking.getStatus().equals(APPROVED)) {
-            throw new BookingAlreadyApproved(format("Booking with bookingId=%s is already approved", bookingId));
+            return new BookingAlreadyApproved(format("Booking with bookingId=%s is already approved", bookingId));
         }
 
-        if (booking.getItem().getOwner().getId() == userId) {
-            if (approved) {
-                booking.setStatus(APPROVED);
-            } else {
-                booking.setStatus(REJECTED);
-            }
-            return toBookingDto(bookingRepository.save(booking));
-        } else {
-            throw new UserMismatchException(format("User with userId=%s is not allowed to change the status of the booking", userId));
+        if (booking.getItem().getOwner().getId() != userId) {
+            return new UserMismatchException(format("User with userId=%s is not allowed to change the status of the booking", userId));
         }
+
+        return new BookingAlreadyApproved(format("Booking with bookingId=%s is already %s", bookingId,
+                booking.getStatus().name().toLowerCase()));
     }
 
     @Override
@@ -97,188 +215,134 @@ public class BookingServiceImpl implements BookingService {
 
     @Override
     public List<BookingDto> getAllBookingsByBooker(String state, long userId) {
-        User booker = userRepository.findById(userId)
-                                    .orElseThrow(() -> new UserNotFoundException(
-                                            format("Booker with userId=%s is not found", userId))
-                                    );
+        User booker = findBooker(userId);
 
-        return getBookingsByBooker(state, booker);
+        return findBookings(query(BOOKER, booker, state).build());
     }
 
-    private List<BookingDto> getBookingsByBooker(String state, User booker) {
-        BookingState bookingState = EnumUtils.findEnumValue(BookingState.class, state);
-        List<Booking> bookings;
-
-        switch (bookingState) {
-            case ALL:
-                bookings = bookingRepository.findByBookerOrderByStartDesc(booker);
-                break;
-            case PAST:
-                bookings = bookingRepository.findPastBookingsByBooker(booker);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findFutureBookingsByBooker(booker);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findCurrentBookingsByBooker(booker);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByBookerAndStatusOrderByStartDesc(booker, WAITING);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByBookerAndStatusOrderByStartDesc(booker, REJECTED);
-                break;
-            default:
-                throw new UnsupportedStateException("Unknown state: UNSUPPORTED_STATUS");
+    @Override
+    public Slice<BookingDto> getAllBookingsByBooker(String state, long userId, int from, int size, LocalDateTime now) {
+        if (PageableUtils.isInvalidFromAndSize(from, size)) {
+            throw new InvalidPageableParametersException("Invalid pageable parameters");
         }
+        User booker = findBooker(userId);
 
-        return bookings.stream()
-                       .map(BookingMapper::toBookingDto)
-                       .collect(Collectors.toList());
+        return findPage(query(BOOKER, booker, state).withNow(now).withOffset(from), size);
     }
 
     @Override
-    public List<BookingDto> getAllBookingsByBooker(String status, long userId, int from, int size) {
-        if (PageableUtils.isInvalidFromAndSize(from, size)) {
+    public Slice<BookingDto> getAllBookingsByBooker(String state, long userId, BookingCursor after, int size) {
+        if (PageableUtils.isInvalidFromAndSize(0, size)) {
             throw new InvalidPageableParametersException("Invalid pageable parameters");
         }
+        User booker = findBooker(userId);
 
-        User booker = userRepository.findById(userId)
-                                    .orElseThrow(() -> new UserNotFoundException(
-                                            format("Booker with userId=%s is not found", userId))
-                                    );
-
-        return getBookingsByBooker(status, booker, PageRequest.of(from / size, size));
+        return findPage(query(BOOKER, booker, state).withNow(after.getNow())
+                                                    .withCursorStart(after.getStart())
+                                                    .withCursorId(after.getId()), size);
     }
 
-    private List<BookingDto> getBookingsByBooker(String state, User booker, Pageable pageable) {
-        BookingState bookingState = EnumUtils.findEnumValue(BookingState.class, state);
-        Page<Booking> bookings;
-
-        switch (bookingState) {
-            case ALL:
-                bookings = bookingRepository.findByBookerOrderByStartDesc(booker, pageable);
-                break;
-            case PAST:
-                bookings = bookingRepository.findPastBookingsByBooker(booker, pageable);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findFutureBookingsByBooker(booker, pageable);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findCurrentBookingsByBooker(booker, pageable);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByBookerAndStatusOrderByStartDesc(booker, WAITING, pageable);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByBookerAndStatusOrderByStartDesc(booker, REJECTED, pageable);
-                break;
-            default:
-                throw new UnsupportedStateException("Unknown state: UNSUPPORTED_STATUS");
-        }
+    @Override
+    public long countBookingsByBooker(String state, long userId) {
+        User booker = findBooker(userId);
 
-        return bookings.stream()
-                       .map(BookingMapper::toBookingDto)
-                       .collect(Collectors.toList());
+        return bookingRepository.countBookings(query(BOOKER, booker, state).build());
     }
 
     @Override
     public List<BookingDto> getAllBookingsByOwner(String state, long userId) {
-        User owner = userRepository.findById(userId)
-                                   .orElseThrow(() -> new UserNotFoundException(
-                                           format("Owner with userId=%s is not found", userId))
-                                   );
+        User owner = findOwner(userId);
 
-        return getBookingsByOwner(state, owner);
+        return findBookings(query(OWNER, owner, state).build());
     }
 
-    private List<BookingDto> getBookingsByOwner(String state, User owner) {
-        BookingState bookingState = EnumUtils.findEnumValue(BookingState.class, state);
-        List<Booking> bookings;
-
-        switch (bookingState) {
-            case ALL:
-                bookings = bookingRepository.findByOwnerOrderByStartDesc(owner);
-                break;
-            case PAST:
-                bookings = bookingRepository.findPastBookingsByOwner(owner);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findFutureBookingsByOwner(owner);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findCurrentBookingsByOwner(owner);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByOwnerAndStatusOrderByStartDesc(owner, WAITING);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByOwnerAndStatusOrderByStartDesc(owner, REJECTED);
-                break;
-            default:
-                throw new UnsupportedStateException("Unknown state: UNSUPPORTED_STATUS");
+    @Override
+    public Slice<BookingDto> getAllBookingsByOwner(String state, long userId, int from, int size, LocalDateTime now) {
+        if (PageableUtils.isInvalidFromAndSize(from, size)) {
+            throw new InvalidPageableParametersException("Invalid pageable parameters");
         }
+        User owner = findOwner(userId);
 
-        return bookings.stream()
-                       .map(BookingMapper::toBookingDto)
-                       .collect(Collectors.toList());
+        return findPage(query(OWNER, owner, state).withNow(now).withOffset(from), size);
     }
 
     @Override
-    public List<BookingDto> getAllBookingsByOwner(String state, long userId, int from, int size) {
-        if (PageableUtils.isInvalidFromAndSize(from, size)) {
-           throw new InvalidPageableParametersException("Invalid pageable parameters");
+    public Slice<BookingDto> getAllBookingsByOwner(String state, long userId, BookingCursor after, int size) {
+        if (PageableUtils.isInvalidFromAndSize(0, size)) {
+            throw new InvalidPageableParametersException("Invalid pageable parameters");
         }
-        User owner = userRepository.findById(userId)
-                                   .orElseThrow(() -> new UserNotFoundException(
-                                           format("Owner with userId=%s is not found", userId))
-                                   );
+        User owner = findOwner(userId);
 
-        return getBookingsByOwner(state, owner, PageRequest.of(from / size, size));
+        return findPage(query(OWNER, owner, state).withNow(after.getNow())
+                                                  .withCursorStart(after.getStart())
+                                                  .withCursorId(after.getId()), size);
     }
 
-    private List<BookingDto> getBookingsByOwner(String state, User owner, Pageable pageable) {
+    @Override
+    public long countBookingsByOwner(String state, long userId) {
+        User owner = findOwner(userId);
+
+        return bookingRepository.countBookings(query(OWNER, owner, state).build());
+    }
+
+    private User findBooker(long userId) {
+        return userCache.findById(userId)
+                        .orElseThrow(() -> new UserNotFoundException(format("Booker with userId=%s is not found", userId)));
+    }
+
+    private User findOwner(long userId) {
+        return userCache.findById(userId)
+                        .orElseThrow(() -> new UserNotFoundException(format("Owner with userId=%s is not found", userId)));
+    }
+
+    private static BookingQuery.BookingQueryBuilder query(BookingQuery.Role role, User user, String state) {
+        return BookingQuery.builder()
+                           .withRole(role)
+                           .withUserId(user.getId())
+                           .withState(parseState(state));
+    }
+
+    private static BookingState parseState(String state) {
         BookingState bookingState = EnumUtils.findEnumValue(BookingState.class, state);
-        Page<Booking> bookings;
-
-        switch (bookingState) {
-            case ALL:
-                bookings = bookingRepository.findByOwnerOrderByStartDesc(owner, pageable);
-                break;
-            case PAST:
-                bookings = bookingRepository.findPastBookingsByOwner(owner, pageable);
-                break;
-            case FUTURE:
-                bookings = bookingRepository.findFutureBookingsByOwner(owner, pageable);
-                break;
-            case CURRENT:
-                bookings = bookingRepository.findCurrentBookingsByOwner(owner, pageable);
-                break;
-            case WAITING:
-                bookings = bookingRepository.findByOwnerAndStatusOrderByStartDesc(owner, WAITING, pageable);
-                break;
-            case REJECTED:
-                bookings = bookingRepository.findByOwnerAndStatusOrderByStartDesc(owner, REJECTED, pageable);
-                break;
-            default:
-                throw new UnsupportedStateException("Unknown state: UNSUPPORTED_STATUS");
+        if (bookingState == null) {
+            throw new UnsupportedStateException("Unknown state: UNSUPPORTED_STATUS");
         }
+        return bookingState;
+    }
 
-        return bookings.stream()
-                       .map(BookingMapper::toBookingDto)
-                       .collect(Collectors.toList());
+    /**
+     * Reads one booking more than requested, its presence tells that there is a next page.
+     */
+    private Slice<BookingDto> findPage(BookingQuery.BookingQueryBuilder query, int size) {
+        List<BookingDto> bookings = findBookings(query.withLimit(size + 1).build());
+        boolean hasNext = bookings.size() > size;
+        List<BookingDto> content = bookings.subList(0, Math.min(size, bookings.size()));
+        return new SliceImpl<>(content, PageRequest.of(0, size), hasNext);
+    }
+
+    /**
+     * Lists are read either with plain JDBC straight into DTOs or through JPA entities, depending on the
+     * role's shareit.booking.jdbc-read setting.
+     */
+    private List<BookingDto> findBookings(BookingQuery query) {
+        if (jdbcReadRoles.contains(query.getRole())) {
+            return bookingJdbcRepository.findBookings(query);
+        }
+        return bookingRepository.findBookings(query)
+                                .stream()
+                                .map(BookingMapper::toBookingDto)
+                                .collect(Collectors.toList());
     }
 
     @Transactional
     @Override
     public BookingDto createBooking(long userId, BookingDto bookingDto) {
-        User user = userRepository.findById(userId)
-                                  .orElseThrow(() -> new UserNotFoundException(
-                                          format("Owner with userId=%s is not found", userId))
-                                  );
+        User user = userCache.findById(userId)
+                             .orElseThrow(() -> new UserNotFoundException(
+                                     format("Owner with userId=%s is not found", userId))
+                             );
 
-        Item item = itemRepository.findById(bookingDto.getItemId())
+        Item item = itemRepository.findByIdForUpdate(bookingDto.getItemId())
                                   .orElseThrow(() -> new ItemNotFoundException(
                                           format("Item with itemId=%s is not found", bookingDto.getItemId()))
                                   );
@@ -290,9 +354,16 @@ public class BookingServiceImpl implements BookingService {
         }
 
         if (item.getAvailable()) {
+            if (bookingRepository.existsOverlappingBooking(item.getId(), bookingDto.getStart(), bookingDto.getEnd(),
+                    List.of(WAITING, APPROVED))) {
+                throw new BookingOverlapException(format("Item with itemId=%s is already booked between %s and %s",
+                        item.getId(), bookingDto.getStart(), bookingDto.getEnd()));
+            }
             Booking booking = toBooking(user, item, bookingDto);
             booking.setStatus(WAITING);
-            return toBookingDto(bookingRepository.save(booking));
+            Booking savedBooking = bookingRepository.save(booking);
+            itemBookingSummaries.refresh(item.getId());
+            return toBookingDto(savedBooking);
         } else {
             throw new ItemUnavailableException(format("Item with itemId=%s is unavailable for booking", item.getId()));
         }
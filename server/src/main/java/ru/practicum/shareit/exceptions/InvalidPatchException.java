@@ -0,0 +1,8 @@
+package ru.practicum.shareit.exceptions;
+
+public class InvalidPatchException extends RuntimeException {
+
+    public InvalidPatchException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,8 @@
+package ru.practicum.shareit.exceptions;
+
+public class TooManyBookingsException extends RuntimeException {
+
+    public TooManyBookingsException(String message) {
+        super(message);
+    }
+}
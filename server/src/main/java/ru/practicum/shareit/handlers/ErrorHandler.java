@@ -41,6 +41,12 @@ public class ErrorHandler {
         return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.CONFLICT);
     }
 
+    @ExceptionHandler(value = {BookingOverlapException.class})
+    public ResponseEntity<Map<String, String>> handleBookingOverlapException(final BookingOverlapException e) {
+        log.error("Server returned HttpCode 409: {}", e.getMessage(), e);
+        return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.CONFLICT);
+    }
+
     @ExceptionHandler(value = {Throwable.class})
     public ResponseEntity<Map<String, String>> handleThrowable(final Throwable e) {
         log.error("Server returned HttpCode 400: {}", e.getMessage(), e);
@@ -88,4 +94,10 @@ public class ErrorHandler {
         log.error("Server returned HttpCode 400: {}", e.getMessage(), e);
         return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.BAD_REQUEST);
     }
+
+    @ExceptionHandler(value = {InvalidPatchException.class})
+    public ResponseEntity<Map<String, String>> handleInvalidPatchException(final InvalidPatchException e) {
+        log.error("Server returned HttpCode 400: {}", e.getMessage(), e);
+        return new ResponseEntity<>(Map.of("error", e.getMessage()), HttpStatus.BAD_REQUEST);
+    }
 }
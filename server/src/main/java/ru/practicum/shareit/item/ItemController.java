@@ -10,12 +10,14 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/items")
@@ -28,8 +30,16 @@ public class ItemController {
         this.itemService = itemService;
     }
 
+    /**
+     * Answers a matching If-None-Match with 304 from the item's version alone, before the view is read.
+     */
     @GetMapping("/{itemId}")
-    public ItemDto getItemById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId) {
+    public ItemDto getItemById(@RequestHeader("X-Sharer-User-Id") long userId, @PathVariable long itemId,
+                               WebRequest request) {
+        Optional<String> etag = itemService.getItemETag(userId, itemId);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) {
+            return null;
+        }
         return itemService.getItemById(userId, itemId);
     }
 
@@ -0,0 +1,43 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Item row joined with its booking summary, as read by the item detail query. The summary columns are
+ * {@code null} when the item has no summary yet.
+ */
+public interface ItemDetailView {
+    long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getRequestId();
+
+    long getOwnerId();
+
+    Long getSummaryItemId();
+
+    LocalDateTime getSummaryRefreshAt();
+
+    Long getBookingCount();
+
+    Long getLastBookingId();
+
+    LocalDateTime getLastBookingStart();
+
+    LocalDateTime getLastBookingEnd();
+
+    Long getLastBookerId();
+
+    Long getNextBookingId();
+
+    LocalDateTime getNextBookingStart();
+
+    LocalDateTime getNextBookingEnd();
+
+    Long getNextBookerId();
+}
@@ -0,0 +1,17 @@
+package ru.practicum.shareit.item.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Version of an item with the state of its booking summary, enough to tell whether a cached detail view is
+ * still current without reading it. The summary columns are {@code null} when the item has no summary yet.
+ */
+public interface ItemVersionView {
+    long getVersion();
+
+    long getOwnerId();
+
+    Long getSummaryItemId();
+
+    LocalDateTime getSummaryRefreshAt();
+}
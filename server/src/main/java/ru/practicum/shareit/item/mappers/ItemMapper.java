@@ -1,9 +1,11 @@
 package ru.practicum.shareit.item.mappers;
 
-import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemDetailView;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
 import ru.practicum.shareit.user.model.User;
 
 public class ItemMapper {
@@ -18,13 +20,49 @@ public class ItemMapper {
                       .build();
     }
 
-    public static ItemDto.Booking toItemDtoBooking(Booking booking) {
-        return ItemDto.Booking.builder()
-                              .withId(booking.getId())
-                              .withBookerId(booking.getBooker().getId())
-                              .withStart(booking.getStart())
-                              .withEnd(booking.getEnd())
-                              .build();
+    public static ItemDto toItemDto(ItemDetailView item) {
+        return ItemDto.builder()
+                      .withId(item.getId())
+                      .withName(item.getName())
+                      .withDescription(item.getDescription())
+                      .withAvailable(item.getAvailable())
+                      .withRequestId(item.getRequestId() != null ? item.getRequestId() : 0)
+                      .build();
+    }
+
+    public static ItemBookingSummary toItemBookingSummary(ItemDetailView item) {
+        return ItemBookingSummary.builder()
+                                 .withItemId(item.getId())
+                                 .withLastBookingId(item.getLastBookingId())
+                                 .withLastBookingStart(item.getLastBookingStart())
+                                 .withLastBookingEnd(item.getLastBookingEnd())
+                                 .withLastBookerId(item.getLastBookerId())
+                                 .withNextBookingId(item.getNextBookingId())
+                                 .withNextBookingStart(item.getNextBookingStart())
+                                 .withNextBookingEnd(item.getNextBookingEnd())
+                                 .withNextBookerId(item.getNextBookerId())
+                                 .withBookingCount(item.getBookingCount() != null ? item.getBookingCount() : 0)
+                                 .withRefreshAt(item.getSummaryRefreshAt())
+                                 .build();
+    }
+
+    public static void setBookings(ItemDto itemDto, ItemBookingSummary summary) {
+        if (summary.getLastBookingId() != null) {
+            itemDto.setLastBooking(ItemDto.Booking.builder()
+                                                  .withId(summary.getLastBookingId())
+                                                  .withBookerId(summary.getLastBookerId())
+                                                  .withStart(summary.getLastBookingStart())
+                                                  .withEnd(summary.getLastBookingEnd())
+                                                  .build());
+        }
+        if (summary.getNextBookingId() != null) {
+            itemDto.setNextBooking(ItemDto.Booking.builder()
+                                                  .withId(summary.getNextBookingId())
+                                                  .withBookerId(summary.getNextBookerId())
+                                                  .withStart(summary.getNextBookingStart())
+                                                  .withEnd(summary.getNextBookingEnd())
+                                                  .build());
+        }
     }
 
     public static ItemDto.Comment toItemDtoComment(Comment comment) {
@@ -35,6 +73,14 @@ public class ItemMapper {
                               .build();
     }
 
+    public static ItemDto.Comment toItemDtoComment(CommentView comment) {
+        return ItemDto.Comment.builder().withId(comment.getId())
+                              .withText(comment.getText())
+                              .withAuthorName(comment.getAuthorName())
+                              .withCreated(comment.getCreated())
+                              .build();
+    }
+
     public static Item toItem(User owner, ItemDto itemDto) {
         return Item.builder()
                    .withId(itemDto.getId())
@@ -6,6 +6,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.DynamicUpdate;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.model.User;
 
@@ -19,6 +20,7 @@ import javax.persistence.*;
 @Getter
 @Setter
 @ToString
+@DynamicUpdate
 public class Item {
     @Id
     @GeneratedValue(generator = "PK_ITEMS", strategy = GenerationType.IDENTITY)
@@ -33,4 +35,9 @@ public class Item {
     @ManyToOne
     @JoinColumn(name = "request_id")
     private ItemRequest request;
+    /**
+     * Bumped by bulk updates whenever the item's detail view changes, see {@link ru.practicum.shareit.item.repositories.ItemRepository#incrementVersion}.
+     */
+    @Column(insertable = false, updatable = false)
+    private long version;
 }
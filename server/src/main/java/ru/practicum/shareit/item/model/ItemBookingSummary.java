@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import java.time.LocalDateTime;
+
+/**
+ * Last finished and next upcoming approved booking of an item, kept with the item so that its owner's views
+ * need not read the bookings. {@code refreshAt} is the moment one of the item's approved bookings starts or ends
+ * next, after which the summary has to be rolled forward.
+ */
+@Entity
+@Table(name = "item_booking_summaries", schema = "public")
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder(setterPrefix = "with")
+@Getter
+@Setter
+@ToString
+public class ItemBookingSummary {
+    @Id
+    @Column(name = "item_id")
+    private long itemId;
+    @Column(name = "last_booking_id")
+    private Long lastBookingId;
+    @Column(name = "last_booking_start")
+    private LocalDateTime lastBookingStart;
+    @Column(name = "last_booking_end")
+    private LocalDateTime lastBookingEnd;
+    @Column(name = "last_booker_id")
+    private Long lastBookerId;
+    @Column(name = "next_booking_id")
+    private Long nextBookingId;
+    @Column(name = "next_booking_start")
+    private LocalDateTime nextBookingStart;
+    @Column(name = "next_booking_end")
+    private LocalDateTime nextBookingEnd;
+    @Column(name = "next_booker_id")
+    private Long nextBookerId;
+    @Column(name = "booking_count")
+    private long bookingCount;
+    @Column(name = "refresh_at")
+    private LocalDateTime refreshAt;
+
+    public boolean isStale(LocalDateTime currentTime) {
+        return refreshAt != null && !refreshAt.isAfter(currentTime);
+    }
+}
@@ -1,13 +1,26 @@
 package ru.practicum.shareit.item.repositories;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    List<Comment> findByItemId(long itemId);
+    @Query("select c.id as id, c.text as text, a.name as authorName, c.created as created " +
+            "from Comment c " +
+            "join c.author a " +
+            "where c.item.id = ?1 " +
+            "order by c.id desc")
+    List<CommentView> findLatestByItemId(long itemId, Pageable pageable);
 
-    List<Comment> findByAuthorIdAndItemId(long authorId, long itemId);
+    @Query("select c from Comment c " +
+            "join fetch c.author " +
+            "where c.item.id in ?1 " +
+            "order by c.id")
+    List<Comment> findByItemIdIn(Collection<Long> itemIds);
 }
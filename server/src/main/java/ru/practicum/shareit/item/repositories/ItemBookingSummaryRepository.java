@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.repositories;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ItemBookingSummaryRepository extends JpaRepository<ItemBookingSummary, Long> {
+
+    @Query("select s.itemId from ItemBookingSummary s " +
+            "where s.refreshAt <= ?1 " +
+            "order by s.refreshAt")
+    List<Long> findItemIdsToRefresh(LocalDateTime currentTime, Pageable pageable);
+}
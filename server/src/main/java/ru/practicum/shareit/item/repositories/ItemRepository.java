@@ -2,26 +2,106 @@ package ru.practicum.shareit.item.repositories;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.item.dto.ItemDetailView;
+import ru.practicum.shareit.item.dto.ItemVersionView;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.LockModeType;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
+    /**
+     * Substring search over the items table, used by {@link ru.practicum.shareit.item.search.ItemSearchIndex}
+     * only until its first build completes.
+     */
     @Query("select i from Item i " +
             "where i.available = true " +
-            "and upper(i.description) like upper(concat('%', ?1, '%')) " +
-            "or (upper(i.name) like upper(concat('%', ?1, '%')))")
+            "and (upper(i.description) like upper(concat('%', ?1, '%')) " +
+            "or upper(i.name) like upper(concat('%', ?1, '%'))) " +
+            "order by i.id")
     List<Item> search(String text);
 
     @Query("select i from Item i " +
-            "where i.available = true " +
-            "and upper(i.description) like upper(concat('%', ?1, '%')) " +
-            "or (upper(i.name) like upper(concat('%', ?1, '%')))")
-    List<Item> search(String text, Pageable pageable);
-
+            "where i.request.id = ?1")
     List<Item> findByRequestId(long requestId);
+
+    @Query("select i.id from Item i where i.owner.id = ?1")
+    List<Long> findIdsByOwnerId(long ownerId);
+
+    @Query("select i.id from Item i join i.request r where r.requestor.id = ?1")
+    List<Long> findIdsByRequestorId(long requestorId);
+
+    @Query(value = "select i.id as id, i.name as name, i.description as description, " +
+            "i.is_available as available, i.request_id as requestId, i.owner_id as ownerId, " +
+            "s.item_id as summaryItemId, s.refresh_at as summaryRefreshAt, s.booking_count as bookingCount, " +
+            "s.last_booking_id as lastBookingId, s.last_booking_start as lastBookingStart, " +
+            "s.last_booking_end as lastBookingEnd, s.last_booker_id as lastBookerId, " +
+            "s.next_booking_id as nextBookingId, s.next_booking_start as nextBookingStart, " +
+            "s.next_booking_end as nextBookingEnd, s.next_booker_id as nextBookerId " +
+            "from items i " +
+            "left join item_booking_summaries s on s.item_id = i.id " +
+            "where i.id = ?1",
+            nativeQuery = true)
+    Optional<ItemDetailView> findDetailById(long itemId);
+
+    @Query(value = "select i.version as version, i.owner_id as ownerId, " +
+            "s.item_id as summaryItemId, s.refresh_at as summaryRefreshAt " +
+            "from items i " +
+            "left join item_booking_summaries s on s.item_id = i.id " +
+            "where i.id = ?1",
+            nativeQuery = true)
+    Optional<ItemVersionView> findVersionById(long itemId);
+
+    @Modifying
+    @Query("update Item i set i.version = i.version + 1 where i.id = ?1")
+    void incrementVersion(long itemId);
+
+    @Modifying
+    @Query("update Item i set i.version = i.version + 1 " +
+            "where i.id in (select c.item.id from Comment c where c.author.id = ?1)")
+    void incrementVersionsCommentedBy(long authorId);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select i from Item i where i.id = ?1")
+    Optional<Item> findByIdForUpdate(long itemId);
+
+    @Query("select i from Item i " +
+            "join fetch i.owner " +
+            "join fetch i.request r " +
+            "join fetch r.requestor " +
+            "where r.id in ?1 " +
+            "order by i.id")
+    List<Item> findByRequestIdIn(Collection<Long> requestIds);
+
+    @Query("select i from Item i " +
+            "join fetch i.owner " +
+            "left join fetch i.request r " +
+            "left join fetch r.requestor " +
+            "where i.owner.id = ?1 " +
+            "order by i.id")
+    List<Item> findByOwnerIdOrderById(long ownerId);
+
+    @Query("select i from Item i " +
+            "join fetch i.owner " +
+            "left join fetch i.request r " +
+            "left join fetch r.requestor " +
+            "where i.owner.id = ?1 " +
+            "order by i.id")
+    List<Item> findByOwnerIdOrderById(long ownerId, Pageable pageable);
+
+    @Query("select i from Item i " +
+            "left join fetch i.owner " +
+            "left join fetch i.request r " +
+            "left join fetch r.requestor " +
+            "where i.available = true and i.id > ?1 " +
+            "order by i.id")
+    List<Item> findAvailableByIdGreaterThan(long id, Pageable pageable);
 }
@@ -0,0 +1,257 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.mappers.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repositories.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory trigram index over available items. Each trigram of an item's name and description points to
+ * the ids of the items containing it, so a substring search only verifies the items listed under the rarest
+ * trigram of the query instead of scanning the whole items table.
+ * <p>
+ * A rebuild fills a fresh {@link Snapshot} and swaps it in once complete, so searches never see a half-built
+ * index. Changes committed while a rebuild runs are recorded and replayed onto the fresh snapshot before the
+ * swap, so a rebuild cannot bring back an older version of an item. Until the first rebuild completes,
+ * searches fall back to {@link ItemRepository#search}.
+ */
+@Slf4j
+@Component
+public class ItemSearchIndex {
+    private static final int GRAM_LENGTH = 3;
+    private static final int REBUILD_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private volatile Snapshot snapshot = new Snapshot();
+    private volatile boolean ready;
+    /**
+     * Changes applied while a rebuild is running, null otherwise. Guarded by this index.
+     */
+    private List<Consumer<Snapshot>> pendingChanges;
+
+    @Autowired
+    public ItemSearchIndex(ItemRepository itemRepository) {
+        this.itemRepository = itemRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        synchronized (this) {
+            pendingChanges = new ArrayList<>();
+        }
+        Snapshot fresh = new Snapshot();
+        try {
+            long lastId = 0;
+            List<Item> batch;
+            do {
+                batch = itemRepository.findAvailableByIdGreaterThan(lastId, PageRequest.of(0, REBUILD_BATCH_SIZE));
+                batch.forEach(item -> fresh.put(new IndexedItem(item)));
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingChanges = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            pendingChanges.forEach(change -> change.accept(fresh));
+            pendingChanges = null;
+            snapshot = fresh;
+            ready = true;
+        }
+        log.info("Item search index is rebuilt with {} items", fresh.items.size());
+    }
+
+    public void index(Item item) {
+        IndexedItem indexedItem = new IndexedItem(item);
+        afterCommit(current -> current.put(indexedItem));
+    }
+
+    /**
+     * Drops deleted items from the index once the deleting transaction commits.
+     */
+    public void remove(Collection<Long> itemIds) {
+        List<Long> ids = List.copyOf(itemIds);
+        afterCommit(current -> ids.forEach(current::remove));
+    }
+
+    public List<ItemDto> search(String text, int from, int size) {
+        if (text.isBlank()) {
+            return Collections.emptyList();
+        }
+        if (!ready) {
+            return itemRepository.search(text)
+                                 .stream()
+                                 .skip(from)
+                                 .limit(size)
+                                 .map(ItemMapper::toItemDto)
+                                 .collect(Collectors.toList());
+        }
+        Snapshot current = snapshot;
+        String query = normalize(text);
+        Iterable<Long> candidates = query.length() < GRAM_LENGTH ? current.items.keySet() : current.findRarestPosting(query);
+
+        List<ItemDto> result = new ArrayList<>();
+        int skipped = 0;
+        for (Long id : candidates) {
+            IndexedItem item = current.items.get(id);
+            if (item == null || !item.matches(query)) {
+                continue;
+            }
+            if (skipped < from) {
+                skipped++;
+                continue;
+            }
+            result.add(item.toItemDto());
+            if (result.size() == size) {
+                break;
+            }
+        }
+        return result;
+    }
+
+    private void afterCommit(Consumer<Snapshot> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private synchronized void apply(Consumer<Snapshot> change) {
+        change.accept(snapshot);
+        if (pendingChanges != null) {
+            pendingChanges.add(change);
+        }
+    }
+
+    private static String normalize(String text) {
+        return text.toUpperCase(Locale.ROOT);
+    }
+
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM_LENGTH <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM_LENGTH));
+        }
+        return grams;
+    }
+
+    private static class Snapshot {
+        private final ConcurrentSkipListMap<Long, IndexedItem> items = new ConcurrentSkipListMap<>();
+        private final Map<String, NavigableSet<Long>> postings = new ConcurrentHashMap<>();
+
+        Iterable<Long> findRarestPosting(String query) {
+            NavigableSet<Long> rarest = null;
+            for (String gram : grams(query)) {
+                NavigableSet<Long> posting = postings.get(gram);
+                if (posting == null) {
+                    return Collections.emptySet();
+                }
+                if (rarest == null || posting.size() < rarest.size()) {
+                    rarest = posting;
+                }
+            }
+            return rarest;
+        }
+
+        void put(IndexedItem item) {
+            IndexedItem previous = item.available ? items.put(item.id, item) : items.remove(item.id);
+            if (previous != null) {
+                Set<String> previousGrams = previous.grams();
+                if (item.available) {
+                    previousGrams.removeAll(item.grams());
+                }
+                removePostings(item.id, previousGrams);
+            }
+            if (item.available) {
+                item.grams().forEach(gram -> postings.computeIfAbsent(gram, k -> new ConcurrentSkipListSet<>()).add(item.id));
+            }
+        }
+
+        void remove(long itemId) {
+            IndexedItem previous = items.remove(itemId);
+            if (previous != null) {
+                removePostings(itemId, previous.grams());
+            }
+        }
+
+        private void removePostings(long itemId, Set<String> grams) {
+            grams.forEach(gram -> postings.computeIfPresent(gram, (k, ids) -> {
+                ids.remove(itemId);
+                return ids.isEmpty() ? null : ids;
+            }));
+        }
+    }
+
+    private static class IndexedItem {
+        private final long id;
+        private final String name;
+        private final String description;
+        private final boolean available;
+        private final long requestId;
+        private final String normalizedName;
+        private final String normalizedDescription;
+
+        IndexedItem(Item item) {
+            this.id = item.getId();
+            this.name = item.getName();
+            this.description = item.getDescription();
+            this.available = Boolean.TRUE.equals(item.getAvailable());
+            this.requestId = item.getRequest() != null ? item.getRequest().getId() : 0;
+            this.normalizedName = name != null ? normalize(name) : "";
+            this.normalizedDescription = description != null ? normalize(description) : "";
+        }
+
+        boolean matches(String query) {
+            return normalizedName.contains(query) || normalizedDescription.contains(query);
+        }
+
+        Set<String> grams() {
+            Set<String> grams = ItemSearchIndex.grams(normalizedName);
+            grams.addAll(ItemSearchIndex.grams(normalizedDescription));
+            return grams;
+        }
+
+        ItemDto toItemDto() {
+            return ItemDto.builder()
+                          .withId(id)
+                          .withName(name)
+                          .withDescription(description)
+                          .withAvailable(available)
+                          .withRequestId(requestId)
+                          .build();
+        }
+    }
+}
@@ -5,10 +5,16 @@ import ru.practicum.shareit.item.dto.ItemDto;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 public interface ItemService {
     ItemDto getItemById(long userId, long itemId);
 
+    /**
+     * ETag of the item detail view the user would get, empty when the view has no stable version.
+     */
+    Optional<String> getItemETag(long userId, long itemId);
+
     List<ItemDto> getAllItems(long userId);
 
     List<ItemDto> getAllItems(long userId, int from, int size);
@@ -1,12 +1,10 @@
 package ru.practicum.shareit.item.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.ReflectionUtils;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.repositories.BookingRepository;
 import ru.practicum.shareit.exceptions.*;
 import ru.practicum.shareit.item.dto.CommentDto;
@@ -14,16 +12,21 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.mappers.CommentMapper;
 import ru.practicum.shareit.item.mappers.ItemMapper;
 import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.dto.ItemDetailView;
+import ru.practicum.shareit.item.dto.ItemVersionView;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
 import ru.practicum.shareit.item.repositories.CommentRepository;
 import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.summary.ItemBookingSummaries;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repositories.ItemRequestRepository;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserCache;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.FieldPatcher;
 import ru.practicum.shareit.utils.PageableUtils;
 
-import java.lang.reflect.Field;
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
@@ -37,111 +40,132 @@ import static ru.practicum.shareit.item.mappers.ItemMapper.toItemDto;
 
 @Service
 public class ItemServiceImpl implements ItemService {
+    private static final FieldPatcher<Item> ITEM_PATCHER = FieldPatcher.<Item>builder()
+            .readOnly("id", Long.class, Item::getId)
+            .field("name", String.class, Item::getName, Item::setName,
+                    name -> !name.isBlank(), "must not be blank")
+            .field("description", String.class, Item::getDescription, Item::setDescription,
+                    description -> !description.isBlank(), "must not be blank")
+            .field("available", Boolean.class, Item::getAvailable, Item::setAvailable)
+            .build();
+
     private final ItemRepository itemRepository;
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final BookingRepository bookingRepository;
     private final CommentRepository commentRepository;
     private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final ItemBookingSummaries itemBookingSummaries;
+    private final int commentsLimit;
 
     @Autowired
     public ItemServiceImpl(ItemRepository itemRepository,
-                           UserRepository userRepository,
+                           UserCache userCache,
                            BookingRepository bookingRepository,
                            CommentRepository commentRepository,
-                           ItemRequestRepository itemRequestRepository) {
+                           ItemRequestRepository itemRequestRepository,
+                           ItemSearchIndex itemSearchIndex,
+                           ItemBookingSummaries itemBookingSummaries,
+                           @Value("${shareit.item-detail.comments-limit:100}") int commentsLimit) {
         this.itemRepository = itemRepository;
-        this.userRepository = userRepository;
+        this.userCache = userCache;
         this.bookingRepository = bookingRepository;
         this.commentRepository = commentRepository;
         this.itemRequestRepository = itemRequestRepository;
+        this.itemSearchIndex = itemSearchIndex;
+        this.itemBookingSummaries = itemBookingSummaries;
+        this.commentsLimit = commentsLimit;
     }
 
+    @Transactional(readOnly = true)
     @Override
     public ItemDto getItemById(long userId, long itemId) {
-        Item item = itemRepository.findById(itemId)
-                                  .orElseThrow(() -> new ItemNotFoundException(format("Item with itemId=%s is not found", itemId)));
-
-        ItemDto itemDto = toItemDto(item);
-
-        List<Booking> bookings = bookingRepository.findByItemIdAndOwnerIdOrderByStartDesc(itemId, userId);
-        LocalDateTime currentTime = LocalDateTime.now();
+        ItemDetailView item = itemRepository.findDetailById(itemId)
+                                            .orElseThrow(() -> new ItemNotFoundException(format("Item with itemId=%s is not found", itemId)));
+        ItemDto itemDto = ItemMapper.toItemDto(item);
 
-        setLastAndNextBookings(currentTime, itemDto, bookings);
+        if (item.getOwnerId() == userId) {
+            LocalDateTime currentTime = LocalDateTime.now();
+            ItemBookingSummary summary = item.getSummaryItemId() != null ? ItemMapper.toItemBookingSummary(item) : null;
+            if (summary == null || summary.isStale(currentTime)) {
+                summary = itemBookingSummaries.compute(itemId, currentTime);
+            }
+            ItemMapper.setBookings(itemDto, summary);
+        }
 
-        List<ItemDto.Comment> comments = commentRepository.findByItemId(itemId)
+        List<ItemDto.Comment> comments = commentRepository.findLatestByItemId(itemId, PageRequest.of(0, commentsLimit))
                                                           .stream()
                                                           .map(ItemMapper::toItemDtoComment)
                                                           .collect(Collectors.toList());
+        Collections.reverse(comments);
 
         itemDto.setComments(comments);
 
         return itemDto;
     }
 
+    /**
+     * The detail view changes only with the item's version, except for the owner's booking summary, which goes
+     * out of date with time until it is rolled forward. An owner with such a summary gets no ETag.
+     */
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<String> getItemETag(long userId, long itemId) {
+        return itemRepository.findVersionById(itemId)
+                             .filter(version -> version.getOwnerId() != userId || hasCurrentSummary(version))
+                             .map(version -> version.getVersion() + (version.getOwnerId() == userId ? "-owner" : ""));
+    }
+
+    @Transactional(readOnly = true)
     @Override
     public List<ItemDto> getAllItems(long userId) {
-        LocalDateTime currentTime = LocalDateTime.now();
-        return itemRepository.findAll(Sort.by("id").ascending())
-                             .stream()
-                             .filter(item -> item.getOwner().getId() == userId)
-                             .map(item -> setItems(userId, item, currentTime))
-                             .collect(Collectors.toList());
+        return toOwnerItemDtos(itemRepository.findByOwnerIdOrderById(userId));
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<ItemDto> getAllItems(long userId, int from, int size) {
         if (PageableUtils.isInvalidFromAndSize(from, size)) {
             throw new InvalidPageableParametersException("Invalid pageable parameters");
         }
-        LocalDateTime currentTime = LocalDateTime.now();
-        return itemRepository.findAll(PageRequest.of(from, size, Sort.by("id").ascending()))
-                             .stream()
-                             .filter(item -> item.getOwner().getId() == userId)
-                             .map(item -> setItems(userId, item, currentTime))
-                             .collect(Collectors.toList());
-    }
-
-    private ItemDto setItems(long userId, Item item, LocalDateTime currentTime) {
-        ItemDto itemDto = ItemMapper.toItemDto(item);
-        List<ItemDto.Comment> comments = commentRepository.findByAuthorIdAndItemId(userId, item.getId())
-                .stream()
-                .map(ItemMapper::toItemDtoComment)
-                .collect(Collectors.toList());
-        itemDto.setComments(comments);
-
-        List<Booking> bookings = bookingRepository.findByItemIdAndOwnerIdOrderByStartDesc(item.getId(), userId);
-        setLastAndNextBookings(currentTime, itemDto, bookings);
-
-        return itemDto;
-    }
-
-    private void setLastAndNextBookings(LocalDateTime currentTime, ItemDto itemDto, List<Booking> bookings) {
-        Optional<Booking> lastBooking = getLastBooking(currentTime, bookings);
-        lastBooking.ifPresent(b -> itemDto.setLastBooking(ItemMapper.toItemDtoBooking(b)));
-
-        Optional<Booking> nextBooking = getNextBooking(currentTime, bookings);
-        nextBooking.ifPresent(b -> itemDto.setNextBooking(ItemMapper.toItemDtoBooking(b)));
+        return toOwnerItemDtos(itemRepository.findByOwnerIdOrderById(userId, PageRequest.of(from / size, size)));
     }
 
-    private static Optional<Booking> getLastBooking(LocalDateTime currentTime, List<Booking> bookings) {
-        return bookings.stream()
-                       .filter(booking -> booking.getEnd().isBefore(currentTime))
-                       .limit(1)
-                       .findFirst();
-    }
+    private List<ItemDto> toOwnerItemDtos(List<Item> items) {
+        if (items.isEmpty()) {
+            return Collections.emptyList();
+        }
 
-    private static Optional<Booking> getNextBooking(LocalDateTime currentTime, List<Booking> bookings) {
-        return bookings.stream()
-                       .filter(booking -> booking.getEnd().isAfter(currentTime))
-                       .limit(1)
-                       .findFirst();
+        List<Long> itemIds = items.stream()
+                                  .map(Item::getId)
+                                  .collect(Collectors.toList());
+
+        Map<Long, ItemBookingSummary> summariesByItemId = itemBookingSummaries.findByItemIds(itemIds);
+
+        Map<Long, List<Comment>> commentsByItemId = commentRepository.findByItemIdIn(itemIds)
+                                                                     .stream()
+                                                                     .collect(Collectors.groupingBy(
+                                                                             comment -> comment.getItem().getId()));
+
+        return items.stream()
+                    .map(item -> {
+                        ItemDto itemDto = ItemMapper.toItemDto(item);
+                        List<ItemDto.Comment> comments = commentsByItemId.getOrDefault(item.getId(), Collections.emptyList())
+                                                                         .stream()
+                                                                         .map(ItemMapper::toItemDtoComment)
+                                                                         .collect(Collectors.toList());
+                        itemDto.setComments(comments);
+                        ItemMapper.setBookings(itemDto, summariesByItemId.get(item.getId()));
+                        return itemDto;
+                    })
+                    .collect(Collectors.toList());
     }
 
     @Transactional
     @Override
     public ItemDto createItem(long userId, ItemDto itemDto) {
-        User owner = userRepository.findById(userId)
-                                   .orElseThrow(() -> new UserNotFoundException(format("Owner with userId=%s is not found", userId)));
+        User owner = userCache.findById(userId)
+                              .orElseThrow(() -> new UserNotFoundException(format("Owner with userId=%s is not found", userId)));
 
         Item item = ItemMapper.toItem(owner, itemDto);
 
@@ -155,36 +179,40 @@ public class ItemServiceImpl implements ItemService {
             item.setRequest(itemRequest);
         }
 
-        return ItemMapper.toItemDto(itemRepository.save(item));
+        Item savedItem = itemRepository.save(item);
+        itemBookingSummaries.create(savedItem.getId());
+        if (itemRequestId != 0) {
+            itemRequestRepository.incrementVersion(itemRequestId);
+        }
+        itemSearchIndex.index(savedItem);
+
+        return ItemMapper.toItemDto(savedItem);
     }
 
     @Transactional
     @Override
     public CommentDto createComment(long userId, long itemId, CommentDto commentDto) {
-        User author = userRepository.findById(userId)
-                                    .orElseThrow(() -> new UserNotFoundException(format("Owner with userId=%s is not found", userId)));
+        User author = userCache.findById(userId)
+                               .orElseThrow(() -> new UserNotFoundException(format("Owner with userId=%s is not found", userId)));
 
         Item item = itemRepository.findById(itemId)
                                   .orElseThrow(() -> new ItemNotFoundException(format("Item with itemId=%s is not found", itemId)));
 
-        List<Booking> bookings = bookingRepository.findByBookerAndStatusOrderByStartDesc(author, APPROVED)
-                                                  .stream()
-                                                  .filter(booking -> booking.getItem() == item)
-                                                  .filter(booking -> LocalDateTime.now().isAfter(booking.getEnd()))
-                                                  .collect(Collectors.toList());
-
-        if (bookings.size() > 0) {
+        if (bookingRepository.existsFinishedBooking(userId, itemId, APPROVED, LocalDateTime.now())) {
             Comment comment = CommentMapper.toComment(commentDto, author, item);
-            return CommentMapper.toCommentDto(commentRepository.save(comment));
+            CommentDto savedComment = CommentMapper.toCommentDto(commentRepository.save(comment));
+            itemRepository.incrementVersion(itemId);
+            return savedComment;
         } else {
             throw new CommentNotAllowedException(format("User with usedId=%s cannot leave a comment for item with itemId=%s", userId, itemId));
         }
     }
 
+    @Transactional
     @Override
     public ItemDto patchItem(long itemId, long userId, Map<String, Object> fields) {
         Optional<Item> item = itemRepository.findById(itemId);
-        Optional<User> owner = userRepository.findById(userId);
+        Optional<User> owner = userCache.findById(userId);
 
         if (item.isPresent()) {
             if (owner.isPresent()) {
@@ -196,29 +224,31 @@ public class ItemServiceImpl implements ItemService {
             } else {
                 throw new UserNotFoundException(format("Owner with userId=%s is not found", userId));
             }
-            fields.forEach((k, v) -> {
-                Field field = ReflectionUtils.findField(Item.class, k);
-                if (field != null) {
-                    field.setAccessible(true);
-                    ReflectionUtils.setField(field, item.get(), v);
-                }
-            });
+            if (!ITEM_PATCHER.apply(item.get(), fields)) {
+                return toItemDto(item.get());
+            }
 
-            return toItemDto(itemRepository.save(item.get()));
+            Item savedItem = itemRepository.save(item.get());
+            itemRepository.incrementVersion(itemId);
+            if (savedItem.getRequest() != null) {
+                itemRequestRepository.incrementVersion(savedItem.getRequest().getId());
+            }
+            itemSearchIndex.index(savedItem);
+
+            return toItemDto(savedItem);
         } else {
             throw new ItemNotFoundException(format("Item with itemId=%s is not found", itemId));
         }
     }
 
+    private static boolean hasCurrentSummary(ItemVersionView version) {
+        return version.getSummaryItemId() != null
+                && (version.getSummaryRefreshAt() == null || version.getSummaryRefreshAt().isAfter(LocalDateTime.now()));
+    }
+
     @Override
     public List<ItemDto> searchItem(String text, long userId) {
-        if (text.isBlank()) {
-            return Collections.emptyList();
-        } else {
-            return itemRepository.search(text)
-                                 .stream().map(ItemMapper::toItemDto)
-                                 .collect(Collectors.toList());
-        }
+        return itemSearchIndex.search(text, 0, Integer.MAX_VALUE);
     }
 
     @Override
@@ -226,12 +256,6 @@ public class ItemServiceImpl implements ItemService {
         if (PageableUtils.isInvalidFromAndSize(from, size)) {
             throw new InvalidPageableParametersException("Invalid pageable parameters");
         }
-        if (text.isBlank()) {
-            return Collections.emptyList();
-        } else {
-            return itemRepository.search(text, PageRequest.of(from / size, size))
-                                 .stream().map(ItemMapper::toItemDto)
-                                 .collect(Collectors.toList());
-        }
+        return itemSearchIndex.search(text, from, size);
     }
 }
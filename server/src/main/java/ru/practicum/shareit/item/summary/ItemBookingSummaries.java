@@ -0,0 +1,149 @@
+package ru.practicum.shareit.item.summary;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repositories.ItemBookingSummaryRepository;
+import ru.practicum.shareit.item.repositories.ItemRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static ru.practicum.shareit.booking.model.BookingStatus.APPROVED;
+
+/**
+ * Maintains {@link ItemBookingSummary} rows. A summary is refreshed in the transaction that creates, approves
+ * or rejects one of the item's bookings, and rolled forward by a periodic sweep once time passes its
+ * {@code refreshAt}. Readers recompute a missing or not yet swept summary on the fly.
+ */
+@Slf4j
+@Component
+public class ItemBookingSummaries {
+    private static final PageRequest FIRST = PageRequest.of(0, 1);
+
+    private final ItemBookingSummaryRepository summaryRepository;
+    private final BookingRepository bookingRepository;
+    private final ItemRepository itemRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int sweepBatchSize;
+
+    @Autowired
+    public ItemBookingSummaries(ItemBookingSummaryRepository summaryRepository,
+                                BookingRepository bookingRepository,
+                                ItemRepository itemRepository,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${shareit.booking-summary.sweep-batch-size:500}") int sweepBatchSize) {
+        this.summaryRepository = summaryRepository;
+        this.bookingRepository = bookingRepository;
+        this.itemRepository = itemRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.sweepBatchSize = sweepBatchSize;
+    }
+
+    @Transactional
+    public void create(long itemId) {
+        summaryRepository.save(ItemBookingSummary.builder()
+                                                 .withItemId(itemId)
+                                                 .build());
+    }
+
+    /**
+     * Recomputes the summary of an item under the item's row lock, so concurrent booking changes of the same
+     * item are applied one after another.
+     */
+    @Transactional
+    public ItemBookingSummary refresh(long itemId) {
+        return refresh(itemId, LocalDateTime.now());
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, ItemBookingSummary> findByItemIds(Collection<Long> itemIds) {
+        LocalDateTime currentTime = LocalDateTime.now();
+        Map<Long, ItemBookingSummary> summaries = new HashMap<>();
+        summaryRepository.findAllById(itemIds)
+                         .forEach(summary -> summaries.put(summary.getItemId(), summary));
+
+        for (Long itemId : itemIds) {
+            ItemBookingSummary summary = summaries.get(itemId);
+            if (summary == null || summary.isStale(currentTime)) {
+                summaries.put(itemId, compute(itemId, currentTime));
+            }
+        }
+        return summaries;
+    }
+
+    @Transactional(readOnly = true)
+    public ItemBookingSummary compute(long itemId, LocalDateTime currentTime) {
+        Optional<Booking> lastBooking = first(bookingRepository.findLastFinishedBookings(itemId, APPROVED, currentTime, FIRST));
+        Optional<Booking> nextBooking = first(bookingRepository.findNextUpcomingBookings(itemId, APPROVED, currentTime, FIRST));
+        LocalDateTime nextEnd = bookingRepository.findNextEnd(itemId, APPROVED, currentTime);
+
+        ItemBookingSummary summary = ItemBookingSummary.builder()
+                                                       .withItemId(itemId)
+                                                       .withBookingCount(bookingRepository.countByItemId(itemId))
+                                                       .build();
+        lastBooking.ifPresent(booking -> {
+            summary.setLastBookingId(booking.getId());
+            summary.setLastBookingStart(booking.getStart());
+            summary.setLastBookingEnd(booking.getEnd());
+            summary.setLastBookerId(booking.getBooker().getId());
+        });
+        nextBooking.ifPresent(booking -> {
+            summary.setNextBookingId(booking.getId());
+            summary.setNextBookingStart(booking.getStart());
+            summary.setNextBookingEnd(booking.getEnd());
+            summary.setNextBookerId(booking.getBooker().getId());
+        });
+
+        LocalDateTime nextStart = nextBooking.map(Booking::getStart).orElse(null);
+        summary.setRefreshAt(nextStart != null && (nextEnd == null || nextStart.isBefore(nextEnd)) ? nextStart : nextEnd);
+        return summary;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking-summary.sweep-interval:PT1M}")
+    public void sweep() {
+        int refreshed = sweep(LocalDateTime.now());
+        if (refreshed > 0) {
+            log.info("Rolled forward {} item booking summaries", refreshed);
+        }
+    }
+
+    public int sweep(LocalDateTime currentTime) {
+        int refreshed = 0;
+        List<Long> itemIds;
+        do {
+            itemIds = summaryRepository.findItemIdsToRefresh(currentTime, PageRequest.of(0, sweepBatchSize));
+            for (Long itemId : itemIds) {
+                transactionTemplate.executeWithoutResult(status -> refresh(itemId, currentTime));
+            }
+            refreshed += itemIds.size();
+        } while (itemIds.size() == sweepBatchSize);
+        return refreshed;
+    }
+
+    private ItemBookingSummary refresh(long itemId, LocalDateTime currentTime) {
+        if (itemRepository.findByIdForUpdate(itemId).isEmpty()) {
+            return null;
+        }
+        ItemBookingSummary summary = summaryRepository.save(compute(itemId, currentTime));
+        itemRepository.incrementVersion(itemId);
+        return summary;
+    }
+
+    private static Optional<Booking> first(List<Booking> bookings) {
+        return bookings.stream().findFirst();
+    }
+}
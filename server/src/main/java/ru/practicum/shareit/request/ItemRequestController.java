@@ -2,10 +2,12 @@ package ru.practicum.shareit.request;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.service.ItemRequestService;
 
 import java.util.List;
+import java.util.Optional;
 
 @RestController
 @RequestMapping(path = "/requests")
@@ -18,9 +20,17 @@ public class ItemRequestController {
         this.itemRequestService = itemRequestService;
     }
 
+    /**
+     * Answers a matching If-None-Match with 304 from the request's version alone, before the view is read.
+     */
     @GetMapping("/{itemRequestId}")
     public ItemRequestDto getItemRequestById(@RequestHeader("X-Sharer-User-Id") long userId,
-                                             @PathVariable long itemRequestId) {
+                                             @PathVariable long itemRequestId,
+                                             WebRequest request) {
+        Optional<String> etag = itemRequestService.getItemRequestETag(userId, itemRequestId);
+        if (etag.isPresent() && request.checkNotModified(etag.get())) {
+            return null;
+        }
         return itemRequestService.getItemRequestById(userId, itemRequestId);
     }
 
@@ -9,6 +9,7 @@ import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import ru.practicum.shareit.user.model.User;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
@@ -36,4 +37,10 @@ public class ItemRequest {
     private User requestor;
     @CreationTimestamp
     private LocalDateTime created;
+    /**
+     * Bumped by bulk updates whenever an item answering the request changes, see
+     * {@link ru.practicum.shareit.request.repositories.ItemRequestRepository#incrementVersion}.
+     */
+    @Column(insertable = false, updatable = false)
+    private long version;
 }
@@ -2,17 +2,42 @@ package ru.practicum.shareit.request.repositories;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.ItemRequest;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
 
+    @Query("select r from ItemRequest r " +
+            "join fetch r.requestor " +
+            "where r.requestor.id = ?1 " +
+            "order by r.created")
     List<ItemRequest> findByRequestorIdOrderByCreated(long requestorId);
 
+    @Query("select r from ItemRequest r " +
+            "join fetch r.requestor " +
+            "where r.requestor.id <> ?1")
     List<ItemRequest> findByRequestorIdNot(long requestorId, Pageable pageable);
 
+    @Query("select r from ItemRequest r " +
+            "join fetch r.requestor " +
+            "where r.requestor.id <> ?1")
     List<ItemRequest> findByRequestorIdNot(long requestorId);
+
+    @Query("select r.version from ItemRequest r where r.id = ?1")
+    Optional<Long> findVersionById(long requestId);
+
+    @Modifying
+    @Query("update ItemRequest r set r.version = r.version + 1 where r.id = ?1")
+    void incrementVersion(long requestId);
+
+    @Modifying
+    @Query("update ItemRequest r set r.version = r.version + 1 " +
+            "where r.id in (select i.request.id from Item i where i.owner.id = ?1)")
+    void incrementVersionsAnsweredBy(long ownerId);
 }
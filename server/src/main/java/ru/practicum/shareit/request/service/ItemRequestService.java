@@ -3,6 +3,7 @@ package ru.practicum.shareit.request.service;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRequestService {
 
@@ -10,6 +11,11 @@ public interface ItemRequestService {
 
     ItemRequestDto getItemRequestById(long userId, long itemRequestId);
 
+    /**
+     * ETag of the item request view, empty when the request does not exist.
+     */
+    Optional<String> getItemRequestETag(long userId, long itemRequestId);
+
     List<ItemRequestDto> getItemRequestsByUserId(long userId);
 
     List<ItemRequestDto> getAllItemRequests(long userId, int from, int size);
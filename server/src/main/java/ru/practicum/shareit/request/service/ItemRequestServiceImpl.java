@@ -12,26 +12,29 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.mappers.ItemRequestMapper;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repositories.ItemRequestRepository;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserCache;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.utils.PageableUtils;
 
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import static java.lang.String.format;
 
 @Service
 public class ItemRequestServiceImpl implements ItemRequestService {
-    private final UserRepository userRepository;
+    private final UserCache userCache;
     private final ItemRepository itemRepository;
     private final ItemRequestRepository itemRequestRepository;
 
     @Autowired
-    public ItemRequestServiceImpl(UserRepository userRepository,
+    public ItemRequestServiceImpl(UserCache userCache,
                                   ItemRepository itemRepository,
                                   ItemRequestRepository itemRequestRepository) {
-        this.userRepository = userRepository;
+        this.userCache = userCache;
         this.itemRepository = itemRepository;
         this.itemRequestRepository = itemRequestRepository;
     }
@@ -39,10 +42,10 @@ public class ItemRequestServiceImpl implements ItemRequestService {
     @Transactional
     @Override
     public ItemRequestDto createItemRequest(long userId, ItemRequestDto itemRequestDto) {
-        User requester = userRepository.findById(userId)
-                                       .orElseThrow(() -> new UserNotFoundException(
-                                               format("User with userId=%s is not found", userId))
-                                       );
+        User requester = userCache.findById(userId)
+                                  .orElseThrow(() -> new UserNotFoundException(
+                                          format("User with userId=%s is not found", userId))
+                                  );
 
         ItemRequest itemRequest = ItemRequestMapper.toItemRequest(requester, itemRequestDto);
 
@@ -51,10 +54,10 @@ public class ItemRequestServiceImpl implements ItemRequestService {
 
     @Override
     public ItemRequestDto getItemRequestById(long userId, long itemRequestId) {
-        userRepository.findById(userId)
-                      .orElseThrow(() -> new UserNotFoundException(
-                              format("Requester with userId=%s is not found", userId))
-                      );
+        userCache.findById(userId)
+                 .orElseThrow(() -> new UserNotFoundException(
+                         format("Requester with userId=%s is not found", userId))
+                 );
 
         ItemRequest itemRequest = itemRequestRepository.findById(itemRequestId)
                                                        .orElseThrow(() -> new ItemRequestNotFoundException(
@@ -64,36 +67,65 @@ public class ItemRequestServiceImpl implements ItemRequestService {
         return findAndSetItemRequestItems(itemRequest);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public Optional<String> getItemRequestETag(long userId, long itemRequestId) {
+        userCache.findById(userId)
+                 .orElseThrow(() -> new UserNotFoundException(
+                         format("Requester with userId=%s is not found", userId))
+                 );
+
+        return itemRequestRepository.findVersionById(itemRequestId)
+                                    .map(String::valueOf);
+    }
+
+    @Transactional(readOnly = true)
     @Override
     public List<ItemRequestDto> getItemRequestsByUserId(long requestorId) {
-        userRepository.findById(requestorId)
-                      .orElseThrow(() -> new UserNotFoundException(
-                              format("Requester with userId=%s is not found", requestorId))
-                      );
-
-        return itemRequestRepository.findByRequestorIdOrderByCreated(requestorId)
-                                    .stream()
-                                    .map(this::findAndSetItemRequestItems)
-                                    .collect(Collectors.toList());
+        userCache.findById(requestorId)
+                 .orElseThrow(() -> new UserNotFoundException(
+                         format("Requester with userId=%s is not found", requestorId))
+                 );
+
+        return findAndSetItemRequestItems(itemRequestRepository.findByRequestorIdOrderByCreated(requestorId));
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<ItemRequestDto> getAllItemRequests(long userId) {
-        return itemRequestRepository.findByRequestorIdNot(userId)
-                                    .stream()
-                                    .map(this::findAndSetItemRequestItems)
-                                    .collect(Collectors.toList());
+        return findAndSetItemRequestItems(itemRequestRepository.findByRequestorIdNot(userId));
     }
 
+    @Transactional(readOnly = true)
     @Override
     public List<ItemRequestDto> getAllItemRequests(long userId, int from, int size) {
         if (PageableUtils.isInvalidFromAndSize(from, size)) {
             throw new InvalidPageableParametersException("Invalid pageable parameters");
         }
-        return itemRequestRepository.findByRequestorIdNot(userId, PageRequest.of(from / size, size))
-                                    .stream()
-                                    .map(this::findAndSetItemRequestItems)
-                                    .collect(Collectors.toList());
+        return findAndSetItemRequestItems(itemRequestRepository.findByRequestorIdNot(userId, PageRequest.of(from / size, size)));
+    }
+
+    private List<ItemRequestDto> findAndSetItemRequestItems(List<ItemRequest> itemRequests) {
+        if (itemRequests.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        List<Long> itemRequestIds = itemRequests.stream()
+                                                .map(ItemRequest::getId)
+                                                .collect(Collectors.toList());
+
+        Map<Long, List<ItemRequestDto.Item>> itemsByRequestId = itemRepository.findByRequestIdIn(itemRequestIds)
+                                                                              .stream()
+                                                                              .map(ItemRequestMapper::toItemRequestDtoItem)
+                                                                              .collect(Collectors.groupingBy(ItemRequestDto.Item::getRequestId));
+
+        return itemRequests.stream()
+                           .map(itemRequest -> {
+                               ItemRequestDto itemRequestDto = ItemRequestMapper.toItemRequestDto(itemRequest);
+                               itemRequestDto.setItems(itemsByRequestId.getOrDefault(itemRequest.getId(), Collections.emptyList()));
+                               return itemRequestDto;
+                           })
+                           .collect(Collectors.toList());
     }
 
     private ItemRequestDto findAndSetItemRequestItems(ItemRequest itemRequest) {
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.user;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bounded near-cache of users for the existence checks and owner/booker lookups done at the start of most
+ * service methods. Entries are detached copies, so callers may use them as association references but must
+ * load the user through {@link UserRepository} to modify it.
+ */
+@Component
+public class UserCache implements MeterBinder {
+    private static final String CACHE_NAME = "users";
+    private static final int STRIPES = 64;
+
+    private final UserRepository userRepository;
+    private final Cache<Long, User> users;
+    private final AtomicLongArray generations = new AtomicLongArray(STRIPES);
+
+    @Autowired
+    public UserCache(UserRepository userRepository,
+                     @Value("${shareit.user-cache.max-size:10000}") long maxSize,
+                     @Value("${shareit.user-cache.ttl:5m}") Duration ttl) {
+        this.userRepository = userRepository;
+        this.users = Caffeine.newBuilder()
+                             .maximumSize(maxSize)
+                             .expireAfterWrite(ttl)
+                             .recordStats()
+                             .build();
+    }
+
+    /**
+     * A user loaded while an update or delete of it commits may be the old row. Every invalidation bumps the
+     * generation of the user's stripe, and a loaded user is only kept in the cache when the generation did not
+     * move between the load and the put.
+     */
+    public Optional<User> findById(long userId) {
+        User user = users.getIfPresent(userId);
+        if (user == null) {
+            int stripe = stripe(userId);
+            long generation = generations.get(stripe);
+            user = userRepository.findById(userId)
+                                 .map(UserCache::copy)
+                                 .orElse(null);
+            if (user == null) {
+                return Optional.empty();
+            }
+            users.put(userId, user);
+            if (generations.get(stripe) != generation) {
+                users.asMap().remove(userId, user);
+            }
+        }
+        return Optional.of(copy(user));
+    }
+
+    public void evict(long userId) {
+        invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidate(userId);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, users, CACHE_NAME);
+    }
+
+    private void invalidate(long userId) {
+        generations.incrementAndGet(stripe(userId));
+        users.invalidate(userId);
+    }
+
+    private static int stripe(long userId) {
+        return (int) (userId & (STRIPES - 1));
+    }
+
+    private static User copy(User user) {
+        return User.builder()
+                   .withId(user.getId())
+                   .withName(user.getName())
+                   .withEmail(user.getEmail())
+                   .build();
+    }
+}
@@ -3,14 +3,20 @@ package ru.practicum.shareit.user.service;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.util.ReflectionUtils;
+import ru.practicum.shareit.booking.repositories.BookingRepository;
 import ru.practicum.shareit.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.summary.ItemBookingSummaries;
+import ru.practicum.shareit.request.repositories.ItemRequestRepository;
+import ru.practicum.shareit.user.UserCache;
 import ru.practicum.shareit.user.mappers.UserMapper;
 import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.utils.FieldPatcher;
 
-import java.lang.reflect.Field;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
@@ -21,17 +27,43 @@ import static ru.practicum.shareit.user.mappers.UserMapper.toUserDto;
 
 @Service
 public class UserServiceImpl implements UserService {
+    private static final FieldPatcher<User> USER_PATCHER = FieldPatcher.<User>builder()
+            .readOnly("id", Long.class, User::getId)
+            .field("name", String.class, User::getName, User::setName,
+                    name -> !name.isBlank(), "must not be blank")
+            .field("email", String.class, User::getEmail, User::setEmail,
+                    email -> email.matches("[^@\\s]+@[^@\\s]+"), "must be a well-formed email address")
+            .build();
+
     private final UserRepository userRepository;
+    private final UserCache userCache;
+    private final ItemRepository itemRepository;
+    private final ItemRequestRepository itemRequestRepository;
+    private final ItemSearchIndex itemSearchIndex;
+    private final BookingRepository bookingRepository;
+    private final ItemBookingSummaries itemBookingSummaries;
 
     @Autowired
-    public UserServiceImpl(UserRepository userRepository) {
+    public UserServiceImpl(UserRepository userRepository,
+                           UserCache userCache,
+                           ItemRepository itemRepository,
+                           ItemRequestRepository itemRequestRepository,
+                           ItemSearchIndex itemSearchIndex,
+                           BookingRepository bookingRepository,
+                           ItemBookingSummaries itemBookingSummaries) {
         this.userRepository = userRepository;
+        this.userCache = userCache;
+        this.itemRepository = itemRepository;
+        this.itemRequestRepository = itemRequestRepository;
+        this.itemSearchIndex = itemSearchIndex;
+        this.bookingRepository = bookingRepository;
+        this.itemBookingSummaries = itemBookingSummaries;
     }
 
     @Override
     public UserDto getUserById(long userId) {
-        return toUserDto(userRepository.findById(userId)
-                                       .orElseThrow(() -> new UserNotFoundException(format("User with userId=%s is not found", userId)))
+        return toUserDto(userCache.findById(userId)
+                                  .orElseThrow(() -> new UserNotFoundException(format("User with userId=%s is not found", userId)))
         );
     }
 
@@ -50,26 +82,45 @@ public class UserServiceImpl implements UserService {
         return UserMapper.toUserDto(userRepository.save(user));
     }
 
+    @Transactional
     @Override
     public UserDto patchUser(long userId, Map<String, Object> fields) {
         Optional<User> user = userRepository.findById(userId);
 
         if (user.isPresent()) {
-            fields.forEach((k, v) -> {
-                Field field = ReflectionUtils.findField(User.class, k);
-                if (field != null) {
-                    field.setAccessible(true);
-                    ReflectionUtils.setField(field, user.get(), v);
-                }
-            });
-            return toUserDto(userRepository.save(user.get()));
+            String name = user.get().getName();
+            if (!USER_PATCHER.apply(user.get(), fields)) {
+                return toUserDto(user.get());
+            }
+            User savedUser = userRepository.saveAndFlush(user.get());
+            userCache.evict(userId);
+            if (!savedUser.getName().equals(name)) {
+                // comments show their author's name in the item views
+                itemRepository.incrementVersionsCommentedBy(userId);
+            }
+            return toUserDto(savedUser);
         } else {
             throw new UserNotFoundException(format("User with userId=%s is not found", userId));
         }
     }
 
+    @Transactional
     @Override
     public void deleteUser(long userId) {
+        // the user's items and the items answering the user's requests go with the user by cascading foreign
+        // keys, so the search index is told explicitly
+        List<Long> itemIds = new ArrayList<>(itemRepository.findIdsByOwnerId(userId));
+        itemIds.addAll(itemRepository.findIdsByRequestorId(userId));
+        // the views of other users' items and requests lose the user's comments and items
+        itemRepository.incrementVersionsCommentedBy(userId);
+        itemRequestRepository.incrementVersionsAnsweredBy(userId);
+        // the user's bookings go with the user as well, so the booking summaries of the items they booked are
+        // recomputed once the bookings are gone, which also moves those items to a new version
+        List<Long> bookedItemIds = bookingRepository.findItemIdsByBookerId(userId);
         userRepository.deleteById(userId);
+        userRepository.flush();
+        bookedItemIds.forEach(itemBookingSummaries::refresh);
+        userCache.evict(userId);
+        itemSearchIndex.remove(itemIds);
     }
 }
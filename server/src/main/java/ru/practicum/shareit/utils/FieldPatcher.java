@@ -0,0 +1,148 @@
+package ru.practicum.shareit.utils;
+
+import ru.practicum.shareit.exceptions.InvalidPatchException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static java.lang.String.format;
+
+/**
+ * Applies a JSON merge patch to an entity through a whitelist of typed accessors built once per entity type.
+ * Values are coerced to the field type and validated before anything is written, unknown and read-only
+ * fields are rejected, and a setter is only called when the value actually changes.
+ */
+public final class FieldPatcher<T> {
+    private final Map<String, PatchableField<T, ?>> fields;
+
+    private FieldPatcher(Map<String, PatchableField<T, ?>> fields) {
+        this.fields = Collections.unmodifiableMap(new LinkedHashMap<>(fields));
+    }
+
+    public static <T> Builder<T> builder() {
+        return new Builder<>();
+    }
+
+    /**
+     * @return {@code true} if at least one field of the target has been changed
+     */
+    public boolean apply(T target, Map<String, Object> patch) {
+        List<Runnable> updates = new ArrayList<>(patch.size());
+        patch.forEach((name, value) -> {
+            PatchableField<T, ?> field = fields.get(name);
+            if (field == null) {
+                throw new InvalidPatchException(format("Field %s cannot be patched", name));
+            }
+            Runnable update = field.prepare(target, name, value);
+            if (update != null) {
+                updates.add(update);
+            }
+        });
+
+        updates.forEach(Runnable::run);
+        return !updates.isEmpty();
+    }
+
+    public static final class Builder<T> {
+        private final Map<String, PatchableField<T, ?>> fields = new LinkedHashMap<>();
+
+        private Builder() {
+        }
+
+        public <V> Builder<T> field(String name, Class<V> type, Function<T, V> getter, BiConsumer<T, V> setter) {
+            return field(name, type, getter, setter, value -> true, null);
+        }
+
+        public <V> Builder<T> field(String name, Class<V> type, Function<T, V> getter, BiConsumer<T, V> setter,
+                                    Predicate<V> constraint, String constraintMessage) {
+            fields.put(name, new PatchableField<>(type, getter, setter, constraint, constraintMessage));
+            return this;
+        }
+
+        /**
+         * A read-only field may be present in a patch only with its current value.
+         */
+        public <V> Builder<T> readOnly(String name, Class<V> type, Function<T, V> getter) {
+            fields.put(name, new PatchableField<>(type, getter, null, value -> true, null));
+            return this;
+        }
+
+        public FieldPatcher<T> build() {
+            return new FieldPatcher<>(fields);
+        }
+    }
+
+    private static final class PatchableField<T, V> {
+        private final Class<V> type;
+        private final Function<T, V> getter;
+        private final BiConsumer<T, V> setter;
+        private final Predicate<V> constraint;
+        private final String constraintMessage;
+
+        PatchableField(Class<V> type, Function<T, V> getter, BiConsumer<T, V> setter,
+                       Predicate<V> constraint, String constraintMessage) {
+            this.type = type;
+            this.getter = getter;
+            this.setter = setter;
+            this.constraint = constraint;
+            this.constraintMessage = constraintMessage;
+        }
+
+        /**
+         * @return the write of the validated value, or {@code null} if the field already has this value
+         */
+        Runnable prepare(T target, String name, Object rawValue) {
+            V value = coerce(name, rawValue);
+            boolean unchanged = Objects.equals(getter.apply(target), value);
+            if (setter == null) {
+                if (!unchanged) {
+                    throw new InvalidPatchException(format("Field %s is read-only", name));
+                }
+                return null;
+            }
+            if (!constraint.test(value)) {
+                throw new InvalidPatchException(format("Field %s %s", name, constraintMessage));
+            }
+            return unchanged ? null : () -> setter.accept(target, value);
+        }
+
+        private V coerce(String name, Object rawValue) {
+            if (rawValue == null) {
+                throw new InvalidPatchException(format("Field %s must not be null", name));
+            }
+            Object value = coerceValue(rawValue);
+            if (!type.isInstance(value)) {
+                throw new InvalidPatchException(format("Field %s must be of type %s", name, type.getSimpleName()));
+            }
+            return type.cast(value);
+        }
+
+        private Object coerceValue(Object value) {
+            if (type == String.class && value instanceof CharSequence) {
+                return value.toString();
+            }
+            if (type == Boolean.class && value instanceof String) {
+                String text = (String) value;
+                return "true".equalsIgnoreCase(text) ? Boolean.TRUE : "false".equalsIgnoreCase(text) ? Boolean.FALSE : value;
+            }
+            if (type == Long.class && value instanceof Number && !(value instanceof Double || value instanceof Float)) {
+                return ((Number) value).longValue();
+            }
+            if (type == Long.class && value instanceof String) {
+                try {
+                    return Long.valueOf((String) value);
+                } catch (NumberFormatException e) {
+                    return value;
+                }
+            }
+            return value;
+        }
+    }
+}
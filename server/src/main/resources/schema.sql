@@ -11,6 +11,7 @@ CREATE TABLE IF NOT EXISTS requests (
     description varchar(200),
     requestor_id bigint,
     created timestamp DEFAULT CURRENT_TIMESTAMP,
+    version bigint DEFAULT 0 NOT NULL,
     CONSTRAINT PK_REQUESTS PRIMARY KEY (id),
     CONSTRAINT FK_REQUESTS_USERS FOREIGN KEY (requestor_id) REFERENCES users ON DELETE CASCADE
 );
@@ -22,6 +23,7 @@ CREATE TABLE IF NOT EXISTS items (
     is_available boolean,
     owner_id bigint,
     request_id bigint,
+    version bigint DEFAULT 0 NOT NULL,
     CONSTRAINT PK_ITEMS PRIMARY KEY (id),
     CONSTRAINT FK_ITEMS_USERS FOREIGN KEY (owner_id) REFERENCES users ON DELETE CASCADE,
     CONSTRAINT FK_ITEMS_REQUESTS FOREIGN KEY (request_id) REFERENCES requests ON DELETE CASCADE
@@ -49,3 +51,50 @@ CREATE TABLE IF NOT EXISTS comments (
     CONSTRAINT FK_COMMENTS_USERS FOREIGN KEY (author_id) REFERENCES users ON DELETE CASCADE
 );
 
+ALTER TABLE requests ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0 NOT NULL;
+
+ALTER TABLE items ADD COLUMN IF NOT EXISTS version bigint DEFAULT 0 NOT NULL;
+
+CREATE INDEX IF NOT EXISTS IX_ITEMS_OWNER ON items (owner_id);
+
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_BOOKER_START ON bookings (booker_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_ITEM_START ON bookings (item_id, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_BOOKER_STATUS_START ON bookings (booker_id, status, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_ITEM_STATUS_START ON bookings (item_id, status, start_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS IX_BOOKINGS_BOOKER_ITEM_STATUS_END ON bookings (booker_id, item_id, status, end_date);
+
+CREATE INDEX IF NOT EXISTS IX_ITEMS_REQUEST ON items (request_id);
+
+CREATE INDEX IF NOT EXISTS IX_REQUESTS_REQUESTOR ON requests (requestor_id, created);
+
+DROP INDEX IF EXISTS IX_COMMENTS_ITEM_AUTHOR;
+
+CREATE INDEX IF NOT EXISTS IX_COMMENTS_ITEM ON comments (item_id, id);
+
+CREATE INDEX IF NOT EXISTS IX_COMMENTS_AUTHOR ON comments (author_id);
+
+CREATE TABLE IF NOT EXISTS item_booking_summaries (
+    item_id bigint NOT NULL,
+    last_booking_id bigint,
+    last_booking_start timestamp without time zone,
+    last_booking_end timestamp without time zone,
+    last_booker_id bigint,
+    next_booking_id bigint,
+    next_booking_start timestamp without time zone,
+    next_booking_end timestamp without time zone,
+    next_booker_id bigint,
+    booking_count bigint DEFAULT 0 NOT NULL,
+    refresh_at timestamp without time zone,
+    CONSTRAINT PK_ITEM_BOOKING_SUMMARIES PRIMARY KEY (item_id),
+    CONSTRAINT FK_ITEM_BOOKING_SUMMARIES_ITEMS FOREIGN KEY (item_id) REFERENCES items ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS IX_ITEM_BOOKING_SUMMARIES_REFRESH ON item_booking_summaries (refresh_at);
+
+INSERT INTO item_booking_summaries (item_id, refresh_at)
+SELECT i.id, CURRENT_TIMESTAMP FROM items i
+WHERE NOT EXISTS (SELECT 1 FROM item_booking_summaries s WHERE s.item_id = i.id);
@@ -0,0 +1,334 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repositories.BookingJdbcRepository;
+import ru.practicum.shareit.booking.repositories.BookingQuery;
+import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repositories.CommentRepository;
+import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.user.model.User;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Proxy;
+import java.lang.reflect.Type;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Runs every query method of the booking, item and comment repositories, and every role, state and cursor
+ * combination of the composed booking list queries in JPQL and in SQL, against a seeded dataset and checks the H2 plan of each
+ * statement they issue, so a new query shape without a matching index fails the build.
+ */
+@DataJpaTest
+@Import(BookingJdbcRepository.class)
+class RepositoryQueryPlanTest {
+    private static final Set<String> LARGE_TABLES = Set.of("BOOKINGS", "ITEMS", "COMMENTS");
+    private static final Set<String> FULL_SCAN_QUERIES = Set.of(
+            // substring search with a leading wildcard cannot use a b-tree index, it only serves searches until
+            // ItemSearchIndex is built
+            "ItemRepository.search"
+    );
+    private static final Pattern TABLE_SCAN = Pattern.compile("PUBLIC\\.(\\w+)\\.tableScan");
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingJdbcRepository bookingJdbcRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private CommentRepository commentRepository;
+
+    private User owner;
+    private User booker;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            users.add(em.persist(User.builder()
+                                     .withName("User " + i)
+                                     .withEmail("plan_user_" + i + "@gmail.com")
+                                     .build()));
+        }
+
+        List<Item> items = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            items.add(em.persist(Item.builder()
+                                     .withName("Item " + i)
+                                     .withDescription("Description " + i)
+                                     .withAvailable(i % 3 != 0)
+                                     .withOwner(users.get(i % users.size()))
+                                     .build()));
+        }
+
+        BookingStatus[] statuses = BookingStatus.values();
+        for (int i = 0; i < 5000; i++) {
+            em.persist(Booking.builder()
+                              .withItem(items.get(i % items.size()))
+                              .withBooker(users.get((i * 7 + 1) % users.size()))
+                              .withStart(now.plusHours(i - 2500))
+                              .withEnd(now.plusHours(i - 2499))
+                              .withStatus(statuses[i % statuses.length])
+                              .build());
+        }
+
+        for (int i = 0; i < 2000; i++) {
+            em.persist(Comment.builder()
+                              .withText("Comment " + i)
+                              .withItem(items.get(i % items.size()))
+                              .withAuthor(users.get((i * 3) % users.size()))
+                              .build());
+        }
+
+        owner = users.get(0);
+        booker = users.get(1);
+        item = items.get(0);
+        em.flush();
+        em.getEntityManager()
+          .createNativeQuery("ANALYZE")
+          .executeUpdate();
+        em.clear();
+    }
+
+    @Test
+    void repositoryQueriesShouldNotScanLargeTablesTest() throws Exception {
+        Map<String, List<String>> failures = new TreeMap<>();
+
+        for (Object repository : List.of(bookingRepository, itemRepository, commentRepository)) {
+            for (Class<?> repositoryInterface : repository.getClass().getInterfaces()) {
+                if (!repositoryInterface.getPackageName().startsWith("ru.practicum.shareit")) {
+                    continue;
+                }
+                for (Method method : repositoryInterface.getDeclaredMethods()) {
+                    String queryName = repositoryInterface.getSimpleName() + "." + method.getName();
+                    if (FULL_SCAN_QUERIES.contains(queryName)) {
+                        continue;
+                    }
+                    List<String> plans = explain(repository, method);
+                    Assertions.assertFalse(plans.isEmpty(), queryName + " did not issue any statement");
+                    plans.stream()
+                         .filter(RepositoryQueryPlanTest::scansLargeTable)
+                         .forEach(plan -> failures.computeIfAbsent(queryName, k -> new ArrayList<>()).add(plan));
+                }
+            }
+        }
+
+        // the composed booking list queries are rendered at run time, so every combination is run on its own
+        for (BookingQuery query : bookingQueries()) {
+            String combination = " " + query.getRole() + " " + query.getState() + (query.hasCursor() ? " after cursor" : "");
+            Map<String, Runnable> reads = Map.of(
+                    "BookingRepositoryCustom.findBookings" + combination, () -> bookingRepository.findBookings(query),
+                    "BookingRepositoryCustom.countBookings" + combination, () -> bookingRepository.countBookings(query),
+                    "BookingJdbcRepository.findBookings" + combination, () -> bookingJdbcRepository.findBookings(query)
+            );
+            reads.forEach((queryName, read) -> {
+                List<String> plans = explain(read);
+                Assertions.assertFalse(plans.isEmpty(), queryName + " did not issue any statement");
+                plans.stream()
+                     .filter(RepositoryQueryPlanTest::scansLargeTable)
+                     .forEach(plan -> failures.computeIfAbsent(queryName, k -> new ArrayList<>()).add(plan));
+            });
+        }
+
+        Assertions.assertTrue(failures.isEmpty(), "Queries falling back to a table scan: " + failures);
+    }
+
+    /**
+     * Every role, state and cursor combination the booking list queries can render.
+     */
+    private List<BookingQuery> bookingQueries() {
+        List<BookingQuery> queries = new ArrayList<>();
+        for (BookingQuery.Role role : BookingQuery.Role.values()) {
+            for (BookingState state : BookingState.values()) {
+                for (boolean cursor : new boolean[]{false, true}) {
+                    queries.add(BookingQuery.builder()
+                                            .withRole(role)
+                                            .withUserId(role == BookingQuery.Role.OWNER ? owner.getId() : booker.getId())
+                                            .withState(state)
+                                            .withCursorStart(cursor ? LocalDateTime.now() : null)
+                                            .withCursorId(cursor ? Long.MAX_VALUE : null)
+                                            .withLimit(10)
+                                            .build());
+                }
+            }
+        }
+        return queries;
+    }
+
+    private List<String> explain(Runnable read) {
+        ExplainingDataSource.PLANS.get().clear();
+        read.run();
+        em.clear();
+        return new ArrayList<>(ExplainingDataSource.PLANS.get());
+    }
+
+    private List<String> explain(Object repository, Method method) throws Exception {
+        ExplainingDataSource.PLANS.get().clear();
+        try {
+            method.invoke(repository, arguments(method));
+        } catch (InvocationTargetException e) {
+            throw new AssertionError(method + " failed", e.getCause());
+        }
+        em.clear();
+        return new ArrayList<>(ExplainingDataSource.PLANS.get());
+    }
+
+    private Object[] arguments(Method method) {
+        Class<?>[] types = method.getParameterTypes();
+        Type[] genericTypes = method.getGenericParameterTypes();
+        Object[] arguments = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            Class<?> type = types[i];
+            if (type == long.class || type == Long.class) {
+                arguments[i] = i == 0 ? item.getId() : owner.getId();
+            } else if (type == String.class) {
+                arguments[i] = "item";
+            } else if (type == LocalDateTime.class) {
+                arguments[i] = LocalDateTime.now();
+            } else if (type == BookingStatus.class) {
+                arguments[i] = BookingStatus.WAITING;
+            } else if (type == Pageable.class) {
+                arguments[i] = PageRequest.of(0, 10);
+            } else if (Collection.class.isAssignableFrom(type)) {
+                Type elementType = ((ParameterizedType) genericTypes[i]).getActualTypeArguments()[0];
+                arguments[i] = elementType == BookingStatus.class ? List.of(BookingStatus.WAITING) : List.of(item.getId());
+            } else {
+                throw new IllegalStateException("No test argument for " + type + " in " + method);
+            }
+        }
+        return arguments;
+    }
+
+    private static boolean scansLargeTable(String plan) {
+        Matcher matcher = TABLE_SCAN.matcher(plan);
+        while (matcher.find()) {
+            if (LARGE_TABLES.contains(matcher.group(1).toUpperCase(Locale.ROOT))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @TestConfiguration
+    static class ExplainingDataSourceConfiguration {
+
+        @Bean
+        static BeanPostProcessor explainingDataSourcePostProcessor() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource ? ExplainingDataSource.wrap((DataSource) bean) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Wraps prepared statements so each executed select or update is first run through EXPLAIN with the same
+     * parameters.
+     */
+    private static class ExplainingDataSource {
+        static final ThreadLocal<List<String>> PLANS = ThreadLocal.withInitial(ArrayList::new);
+
+        static DataSource wrap(DataSource dataSource) {
+            return proxy(DataSource.class, dataSource, (target, method, args) -> {
+                Object result = method.invoke(target, args);
+                return method.getName().equals("getConnection") ? wrap((Connection) result) : result;
+            });
+        }
+
+        private static Connection wrap(Connection connection) {
+            return proxy(Connection.class, connection, (target, method, args) -> {
+                Object result = method.invoke(target, args);
+                if (method.getName().equals("prepareStatement") && args[0] instanceof String) {
+                    return wrap(connection, (PreparedStatement) result, (String) args[0]);
+                }
+                return result;
+            });
+        }
+
+        private static PreparedStatement wrap(Connection connection, PreparedStatement statement, String sql) {
+            Map<Integer, Object> parameters = new TreeMap<>();
+            return proxy(PreparedStatement.class, statement, (target, method, args) -> {
+                if (method.getName().startsWith("set") && args != null && args.length >= 2 && args[0] instanceof Integer) {
+                    parameters.put((Integer) args[0], args[1]);
+                } else if ((method.getName().equals("executeQuery") || method.getName().equals("executeUpdate"))
+                        && (args == null || args.length == 0) && isExplainable(sql)) {
+                    PLANS.get().add(explain(connection, sql, parameters));
+                }
+                return method.invoke(target, args);
+            });
+        }
+
+        private static boolean isExplainable(String sql) {
+            String statement = sql.trim().toLowerCase(Locale.ROOT);
+            return statement.startsWith("select") || statement.startsWith("update");
+        }
+
+        private static String explain(Connection connection, String sql, Map<Integer, Object> parameters)
+                throws SQLException {
+            try (PreparedStatement explain = connection.prepareStatement("EXPLAIN " + sql)) {
+                for (Map.Entry<Integer, Object> parameter : parameters.entrySet()) {
+                    explain.setObject(parameter.getKey(), parameter.getValue());
+                }
+                try (ResultSet plan = explain.executeQuery()) {
+                    return plan.next() ? plan.getString(1) : "";
+                }
+            }
+        }
+
+        @SuppressWarnings("unchecked")
+        private static <T> T proxy(Class<T> type, T target, Invocation invocation) {
+            InvocationHandler handler = (proxy, method, args) -> {
+                try {
+                    return invocation.invoke(target, method, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+            };
+            return (T) Proxy.newProxyInstance(RepositoryQueryPlanTest.class.getClassLoader(), new Class<?>[]{type}, handler);
+        }
+
+        private interface Invocation {
+            Object invoke(Object target, Method method, Object[] args) throws Throwable;
+        }
+    }
+}
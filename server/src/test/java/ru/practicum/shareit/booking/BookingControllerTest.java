@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Disabled;
 import org.junit.jupiter.api.Named;
@@ -11,14 +12,19 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingServiceImpl;
@@ -33,6 +39,7 @@ import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 import static ru.practicum.shareit.booking.model.BookingStatus.*;
@@ -141,6 +148,33 @@ class BookingControllerTest {
                                   .build())));
     }
 
+    @Test
+    void approveOrRejectBookingsTest() throws Exception {
+        List<BookingDecisionDto> decisions = List.of(
+                BookingDecisionDto.builder().withBookingId(1).withResult(BookingDecisionDto.Result.APPROVED).build(),
+                BookingDecisionDto.builder().withBookingId(2).withResult(BookingDecisionDto.Result.NOT_FOUND).build()
+        );
+
+        Mockito.when(bookingService.approveOrRejectBookings(List.of(1L, 2L), true, 1L))
+               .thenReturn(decisions);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.add("X-Sharer-User-Id", "1");
+
+        mockMvc.perform(patch("/bookings?approved=true")
+                       .headers(headers)
+                       .content(mapper.writeValueAsString(List.of(1L, 2L)))
+                       .characterEncoding(StandardCharsets.UTF_8)
+                       .contentType(MediaType.APPLICATION_JSON)
+                       .accept(MediaType.APPLICATION_JSON))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.length()", is(2)))
+               .andExpect(jsonPath("$[0].bookingId", is(1L), Long.class))
+               .andExpect(jsonPath("$[0].result", is("APPROVED")))
+               .andExpect(jsonPath("$[1].bookingId", is(2L), Long.class))
+               .andExpect(jsonPath("$[1].result", is("NOT_FOUND")));
+    }
+
     @ParameterizedTest
     @ValueSource(booleans = {true, false})
     void approveOrRejectBookingTest(boolean approved) throws Exception {
@@ -280,6 +314,73 @@ class BookingControllerTest {
                .andExpect(jsonPath("$[1].item.name", is(bookings.get(1).getItem().getName()), String.class));
     }
 
+    @Test
+    void getBookingsPageByOwnerShouldReturnNextCursorAndRequestedTotalTest() throws Exception {
+        BookingDto booking1 = getBookingDto(1, now().plusMinutes(3), now().plusMinutes(4), APPROVED);
+        BookingDto booking2 = getBookingDto(2, now().plusMinutes(1), now().plusMinutes(2), APPROVED);
+
+        Mockito.when(bookingService.getAllBookingsByOwner(Mockito.anyString(), Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(),
+                       Mockito.any(LocalDateTime.class)))
+               .thenReturn(new SliceImpl<>(List.of(booking1, booking2), PageRequest.of(0, 2), true));
+        Mockito.when(bookingService.countBookingsByOwner("ALL", 1))
+               .thenReturn(5L);
+
+        String nextCursor = mockMvc.perform(get("/bookings/owner?from=0&size=2&withTotal=true")
+                                           .header("X-Sharer-User-Id", "1")
+                                           .accept(MediaType.APPLICATION_JSON))
+                                   .andExpect(status().isOk())
+                                   .andExpect(jsonPath("$.length()", is(2)))
+                                   .andExpect(header().string("X-Total-Count", "5"))
+                                   .andReturn()
+                                   .getResponse()
+                                   .getHeader("X-Next-Cursor");
+
+        ArgumentCaptor<LocalDateTime> moment = ArgumentCaptor.forClass(LocalDateTime.class);
+        Mockito.verify(bookingService).getAllBookingsByOwner(Mockito.eq("ALL"), Mockito.eq(1L), Mockito.eq(0), Mockito.eq(2),
+                moment.capture());
+        Assertions.assertEquals(BookingCursor.of(booking2, moment.getValue()).encode(), nextCursor);
+    }
+
+    @Test
+    void getBookingsPageByBookerAfterCursorShouldKeepMomentOfListTest() throws Exception {
+        BookingDto booking = getBookingDto(3, now().plusMinutes(1), now().plusMinutes(2), APPROVED);
+        LocalDateTime moment = now().minusHours(1);
+        BookingCursor after = new BookingCursor(now().plusMinutes(5), 2, moment);
+
+        Mockito.when(bookingService.getAllBookingsByBooker(Mockito.anyString(), Mockito.anyLong(), Mockito.any(BookingCursor.class),
+                       Mockito.anyInt()))
+               .thenReturn(new SliceImpl<>(List.of(booking), PageRequest.of(0, 1), true));
+
+        mockMvc.perform(get("/bookings?state=FUTURE&size=1&after=" + after.encode())
+                       .header("X-Sharer-User-Id", "1")
+                       .accept(MediaType.APPLICATION_JSON))
+               .andExpect(status().isOk())
+               .andExpect(header().string("X-Next-Cursor", BookingCursor.of(booking, moment).encode()));
+
+        ArgumentCaptor<BookingCursor> cursor = ArgumentCaptor.forClass(BookingCursor.class);
+        Mockito.verify(bookingService).getAllBookingsByBooker(Mockito.eq("FUTURE"), Mockito.eq(1L), cursor.capture(), Mockito.eq(1));
+        Assertions.assertEquals(2, cursor.getValue().getId());
+        Assertions.assertEquals(moment, cursor.getValue().getNow());
+    }
+
+    @Test
+    void getLastBookingsPageByBookerShouldNotCountTest() throws Exception {
+        BookingDto booking = getBookingDto(1, now().plusMinutes(1), now().plusMinutes(2), APPROVED);
+
+        Mockito.when(bookingService.getAllBookingsByBooker(Mockito.anyString(), Mockito.anyLong(), Mockito.anyInt(), Mockito.anyInt(),
+                       Mockito.any(LocalDateTime.class)))
+               .thenReturn(new SliceImpl<>(List.of(booking), PageRequest.of(1, 2), false));
+
+        mockMvc.perform(get("/bookings?from=2&size=2")
+                       .header("X-Sharer-User-Id", "1")
+                       .accept(MediaType.APPLICATION_JSON))
+               .andExpect(status().isOk())
+               .andExpect(jsonPath("$.length()", is(1)))
+               .andExpect(header().doesNotExist("X-Next-Cursor"))
+               .andExpect(header().doesNotExist("X-Total-Count"));
+        Mockito.verify(bookingService, Mockito.never()).countBookingsByBooker(Mockito.anyString(), Mockito.anyLong());
+    }
+
     @Test
     void getAllBookingsByBookerTest() throws Exception {
         BookingDto booking1 = getBookingDto(1, now().plusMinutes(1), now().minusMinutes(2), APPROVED);
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.booking.repositories;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.mappers.BookingMapper;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@DataJpaTest
+@Import(BookingJdbcRepository.class)
+class BookingJdbcRepositoryTest {
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private BookingJdbcRepository bookingJdbcRepository;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        statistics = em.getEntityManager()
+                       .getEntityManagerFactory()
+                       .unwrap(SessionFactory.class)
+                       .getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        owner = persistUser("Owner", "owner@gmail.com");
+        booker = persistUser("Booker", "booker@gmail.com");
+
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+        for (int i = 1; i <= 3; i++) {
+            Item item = em.persist(Item.builder()
+                                       .withName("Drill " + i)
+                                       .withDescription("Simple drill")
+                                       .withAvailable(true)
+                                       .withOwner(owner)
+                                       .build());
+            persistBooking(item, now.minusDays(10 * i + 1), now.minusDays(10 * i), BookingStatus.APPROVED);
+            persistBooking(item, now.minusHours(i), now.plusHours(i), BookingStatus.APPROVED);
+            persistBooking(item, now.plusDays(10 * i), now.plusDays(10 * i + 1), BookingStatus.WAITING);
+            persistBooking(item, now.plusDays(10 * i + 2), now.plusDays(10 * i + 3), BookingStatus.REJECTED);
+        }
+        em.flush();
+        em.clear();
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void findBookingsShouldMatchJpaReadTest(BookingState state) {
+        for (BookingQuery.Role role : BookingQuery.Role.values()) {
+            BookingQuery.BookingQueryBuilder query = BookingQuery.builder()
+                                                                 .withRole(role)
+                                                                 .withUserId(role == BookingQuery.Role.BOOKER ? booker.getId() : owner.getId())
+                                                                 .withState(state)
+                                                                 .withNow(LocalDateTime.now());
+
+            List<BookingDto> all = assertSameAsJpa(query.build());
+            Assertions.assertFalse(all.isEmpty());
+
+            List<BookingDto> firstPage = assertSameAsJpa(query.withLimit(2).build());
+            BookingDto last = firstPage.get(firstPage.size() - 1);
+            assertSameAsJpa(query.withCursorStart(last.getStart()).withCursorId(last.getId()).build());
+            assertSameAsJpa(query.withCursorStart(null).withCursorId(null).withOffset(2).build());
+        }
+    }
+
+    private List<BookingDto> assertSameAsJpa(BookingQuery query) {
+        statistics.clear();
+        List<BookingDto> bookings = bookingJdbcRepository.findBookings(query);
+        Assertions.assertEquals(0, statistics.getEntityLoadCount());
+
+        List<BookingDto> expected = bookingRepository.findBookings(query)
+                                                     .stream()
+                                                     .map(BookingMapper::toBookingDto)
+                                                     .collect(Collectors.toList());
+        em.clear();
+        Assertions.assertEquals(expected, bookings);
+        return bookings;
+    }
+
+    private User persistUser(String name, String email) {
+        return em.persist(User.builder()
+                              .withName(name)
+                              .withEmail(email)
+                              .build());
+    }
+
+    private void persistBooking(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        em.persist(Booking.builder()
+                          .withItem(item)
+                          .withBooker(booker)
+                          .withStart(start)
+                          .withEnd(end)
+                          .withStatus(status)
+                          .build());
+    }
+}
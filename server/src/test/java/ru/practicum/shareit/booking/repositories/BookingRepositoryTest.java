@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.repositories.ItemRepository;
@@ -13,6 +14,7 @@ import ru.practicum.shareit.user.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 
 @DataJpaTest
@@ -63,7 +65,7 @@ class BookingRepositoryTest {
                                  .build();
 
         booking = bookingRepository.save(booking);
-        List<Booking> pastBookings = bookingRepository.findPastBookingsByBooker(booker);
+        List<Booking> pastBookings = findBookings(BookingQuery.Role.BOOKER, booker, BookingState.PAST);
         Assertions.assertEquals(1, pastBookings.size());
         Assertions.assertEquals(booking, pastBookings.get(0));
     }
@@ -104,7 +106,7 @@ class BookingRepositoryTest {
                                  .build();
 
         booking = bookingRepository.save(booking);
-        List<Booking> pastBookings = bookingRepository.findPastBookingsByOwner(owner);
+        List<Booking> pastBookings = findBookings(BookingQuery.Role.OWNER, owner, BookingState.PAST);
         Assertions.assertEquals(1, pastBookings.size());
         Assertions.assertEquals(booking, pastBookings.get(0));
     }
@@ -138,7 +140,7 @@ class BookingRepositoryTest {
                                  .build();
 
         booking = bookingRepository.save(booking);
-        List<Booking> futureBookings = bookingRepository.findFutureBookingsByBooker(booker);
+        List<Booking> futureBookings = findBookings(BookingQuery.Role.BOOKER, booker, BookingState.FUTURE);
         Assertions.assertEquals(1, futureBookings.size());
         Assertions.assertEquals(booking, futureBookings.get(0));
     }
@@ -180,7 +182,7 @@ class BookingRepositoryTest {
                                  .build();
 
         booking = bookingRepository.save(booking);
-        List<Booking> futureBookings = bookingRepository.findFutureBookingsByOwner(owner);
+        List<Booking> futureBookings = findBookings(BookingQuery.Role.OWNER, owner, BookingState.FUTURE);
         Assertions.assertEquals(1, futureBookings.size());
         Assertions.assertEquals(booking, futureBookings.get(0));
     }
@@ -214,7 +216,7 @@ class BookingRepositoryTest {
                                  .build();
 
         booking = bookingRepository.save(booking);
-        List<Booking> futureBookings = bookingRepository.findCurrentBookingsByBooker(booker);
+        List<Booking> futureBookings = findBookings(BookingQuery.Role.BOOKER, booker, BookingState.CURRENT);
         Assertions.assertEquals(1, futureBookings.size());
         Assertions.assertEquals(booking, futureBookings.get(0));
     }
@@ -256,7 +258,7 @@ class BookingRepositoryTest {
                                  .build();
 
         booking = bookingRepository.save(booking);
-        List<Booking> futureBookings = bookingRepository.findCurrentBookingsByOwner(owner);
+        List<Booking> futureBookings = findBookings(BookingQuery.Role.OWNER, owner, BookingState.CURRENT);
         Assertions.assertEquals(1, futureBookings.size());
         Assertions.assertEquals(booking, futureBookings.get(0));
     }
@@ -290,7 +292,7 @@ class BookingRepositoryTest {
                                  .build();
 
         booking = bookingRepository.save(booking);
-        List<Booking> futureBookings = bookingRepository.findByBookerOrderByStartDesc(booker);
+        List<Booking> futureBookings = findBookings(BookingQuery.Role.BOOKER, booker, BookingState.ALL);
         Assertions.assertEquals(1, futureBookings.size());
         Assertions.assertEquals(booking, futureBookings.get(0));
     }
@@ -332,7 +334,7 @@ class BookingRepositoryTest {
                                  .build();
 
         booking = bookingRepository.save(booking);
-        List<Booking> futureBookings = bookingRepository.findFutureBookingsByOwner(owner);
+        List<Booking> futureBookings = findBookings(BookingQuery.Role.OWNER, owner, BookingState.ALL);
         Assertions.assertEquals(1, futureBookings.size());
         Assertions.assertEquals(booking, futureBookings.get(0));
     }
@@ -366,7 +368,7 @@ class BookingRepositoryTest {
                                  .build();
 
         booking = bookingRepository.save(booking);
-        List<Booking> futureBookings = bookingRepository.findByBookerAndStatusOrderByStartDesc(booker, BookingStatus.REJECTED);
+        List<Booking> futureBookings = findBookings(BookingQuery.Role.BOOKER, booker, BookingState.REJECTED);
         Assertions.assertEquals(1, futureBookings.size());
         Assertions.assertEquals(booking, futureBookings.get(0));
     }
@@ -408,13 +410,13 @@ class BookingRepositoryTest {
                                  .build();
 
         booking = bookingRepository.save(booking);
-        List<Booking> futureBookings = bookingRepository.findByOwnerAndStatusOrderByStartDesc(owner, BookingStatus.WAITING);
+        List<Booking> futureBookings = findBookings(BookingQuery.Role.OWNER, owner, BookingState.WAITING);
         Assertions.assertEquals(1, futureBookings.size());
         Assertions.assertEquals(booking, futureBookings.get(0));
     }
 
     @Test
-    void findByItemIdAndOwnerIdOrderByStartDescTest() {
+    void findBookingsShouldContinueFromCursorTest() {
         User booker = User.builder()
                           .withName("User")
                           .withEmail("user_email@gmail.com")
@@ -422,36 +424,126 @@ class BookingRepositoryTest {
 
         booker = userRepository.save(booker);
 
-        User owner = User.builder()
-                         .withName("User")
-                         .withEmail("owner_email@gmail.com")
-                         .build();
-
-        owner = userRepository.save(owner);
-
         Item item = Item.builder()
                         .withName("Item")
                         .withDescription("Description")
-                        .withOwner(owner)
                         .withAvailable(true)
                         .build();
 
         item = itemRepository.save(item);
 
-        LocalDateTime start = LocalDateTime.now().plusMinutes(1);
-        LocalDateTime end = LocalDateTime.now().plusMinutes(2);
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking latest = saveBooking(booker, item, start.plusHours(2));
+        Booking sameStartHigherId = saveBooking(booker, item, start);
+        Booking sameStartLowerId = saveBooking(booker, item, start);
+        Booking earliest = saveBooking(booker, item, start.minusHours(2));
+        em.flush();
+        em.clear();
+
+        BookingQuery.BookingQueryBuilder query = BookingQuery.builder()
+                                                             .withRole(BookingQuery.Role.BOOKER)
+                                                             .withUserId(booker.getId())
+                                                             .withState(BookingState.ALL)
+                                                             .withLimit(2);
+        List<Booking> firstPage = bookingRepository.findBookings(query.build());
+        Assertions.assertEquals(2, firstPage.size());
+        Assertions.assertEquals(latest.getId(), firstPage.get(0).getId());
+
+        Booking cursor = firstPage.get(1);
+        List<Booking> secondPage = bookingRepository.findBookings(query.withCursorStart(cursor.getStart())
+                                                                       .withCursorId(cursor.getId())
+                                                                       .build());
+        Assertions.assertEquals(2, secondPage.size());
+        Assertions.assertEquals(Math.min(sameStartHigherId.getId(), sameStartLowerId.getId()), secondPage.get(0).getId());
+        Assertions.assertEquals(earliest.getId(), secondPage.get(1).getId());
+    }
 
-        Booking booking = Booking.builder()
-                                 .withBooker(booker)
-                                 .withStart(start)
-                                 .withEnd(end)
-                                 .withItem(item)
-                                 .withStatus(BookingStatus.WAITING)
-                                 .build();
+    @Test
+    void existsOverlappingBookingTest() {
+        User booker = userRepository.save(User.builder()
+                                              .withName("User")
+                                              .withEmail("user_email@gmail.com")
+                                              .build());
+
+        Item item = itemRepository.save(Item.builder()
+                                            .withName("Item")
+                                            .withDescription("Description")
+                                            .withAvailable(true)
+                                            .build());
+
+        LocalDateTime start = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.SECONDS);
+        saveBooking(booker, item, start);
+        Booking rejected = saveBooking(booker, item, start.plusHours(3));
+        rejected.setStatus(BookingStatus.REJECTED);
+        bookingRepository.save(rejected);
+
+        List<BookingStatus> statuses = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+        Assertions.assertTrue(bookingRepository.existsOverlappingBooking(item.getId(), start.minusMinutes(30),
+                start.plusMinutes(30), statuses));
+        Assertions.assertTrue(bookingRepository.existsOverlappingBooking(item.getId(), start.plusMinutes(10),
+                start.plusMinutes(20), statuses));
+        Assertions.assertFalse(bookingRepository.existsOverlappingBooking(item.getId(), start.plusHours(1),
+                start.plusHours(2), statuses));
+        Assertions.assertFalse(bookingRepository.existsOverlappingBooking(item.getId(), start.minusHours(1),
+                start, statuses));
+        Assertions.assertFalse(bookingRepository.existsOverlappingBooking(item.getId(), start.plusHours(3),
+                start.plusHours(4), statuses));
+    }
 
-        booking = bookingRepository.save(booking);
-        List<Booking> futureBookings = bookingRepository.findByItemIdAndOwnerIdOrderByStartDesc(item.getId(), owner.getId());
-        Assertions.assertEquals(1, futureBookings.size());
-        Assertions.assertEquals(booking, futureBookings.get(0));
+    @Test
+    void countBookingsShouldMatchFoundBookingsTest() {
+        User booker = userRepository.save(User.builder()
+                                              .withName("Booker")
+                                              .withEmail("booker_email@gmail.com")
+                                              .build());
+        User owner = userRepository.save(User.builder()
+                                             .withName("Owner")
+                                             .withEmail("owner_email@gmail.com")
+                                             .build());
+        Item item = itemRepository.save(Item.builder()
+                                            .withName("Item")
+                                            .withDescription("Description")
+                                            .withOwner(owner)
+                                            .withAvailable(true)
+                                            .build());
+
+        LocalDateTime now = LocalDateTime.now();
+        saveBooking(booker, item, now.minusDays(2));
+        saveBooking(booker, item, now.minusMinutes(30));
+        saveBooking(booker, item, now.plusDays(1));
+        Booking rejected = saveBooking(booker, item, now.plusDays(2));
+        rejected.setStatus(BookingStatus.REJECTED);
+
+        for (BookingState state : BookingState.values()) {
+            for (BookingQuery.Role role : BookingQuery.Role.values()) {
+                BookingQuery query = BookingQuery.builder()
+                                                 .withRole(role)
+                                                 .withUserId(role == BookingQuery.Role.BOOKER ? booker.getId() : owner.getId())
+                                                 .withState(state)
+                                                 .withNow(now)
+                                                 .build();
+                Assertions.assertEquals(bookingRepository.findBookings(query).size(), bookingRepository.countBookings(query),
+                        role + " " + state);
+            }
+        }
+    }
+
+    private List<Booking> findBookings(BookingQuery.Role role, User user, BookingState state) {
+        return bookingRepository.findBookings(BookingQuery.builder()
+                                                          .withRole(role)
+                                                          .withUserId(user.getId())
+                                                          .withState(state)
+                                                          .build());
+    }
+
+    private Booking saveBooking(User booker, Item item, LocalDateTime start) {
+        return bookingRepository.save(Booking.builder()
+                                             .withBooker(booker)
+                                             .withStart(start)
+                                             .withEnd(start.plusHours(1))
+                                             .withItem(item)
+                                             .withStatus(BookingStatus.WAITING)
+                                             .build());
     }
-}
\ No newline at end of file
+}
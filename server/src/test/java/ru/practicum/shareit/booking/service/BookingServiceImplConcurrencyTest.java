@@ -0,0 +1,237 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repositories.BookingQuery;
+import ru.practicum.shareit.booking.repositories.BookingRepository;
+import ru.practicum.shareit.exceptions.BookingAlreadyApproved;
+import ru.practicum.shareit.exceptions.BookingOverlapException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repositories.ItemRepository;
+import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@SpringBootTest
+class BookingServiceImplConcurrencyTest {
+    private static final int THREADS = 16;
+    private static final int REQUESTS_PER_THREAD = 25;
+
+    @Autowired
+    private BookingService bookingService;
+    @Autowired
+    private BookingRepository bookingRepository;
+    @Autowired
+    private ItemRepository itemRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User owner;
+    private List<User> bookers;
+    private Item item;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder()
+                                        .withName("Owner")
+                                        .withEmail("concurrency_owner@gmail.com")
+                                        .build());
+
+        bookers = new ArrayList<>();
+        for (int i = 0; i < THREADS; i++) {
+            bookers.add(userRepository.save(User.builder()
+                                                .withName("Booker " + i)
+                                                .withEmail("concurrency_booker_" + i + "@gmail.com")
+                                                .build()));
+        }
+
+        item = itemRepository.save(Item.builder()
+                                       .withName("Item")
+                                       .withDescription("Contended item")
+                                       .withAvailable(true)
+                                       .withOwner(owner)
+                                       .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingRepository.deleteAll(findItemBookings());
+        itemRepository.delete(item);
+        userRepository.deleteAll(bookers);
+        userRepository.delete(owner);
+    }
+
+    @Test
+    void createBookingShouldNotDoubleBookItemUnderConcurrentRequestsTest() throws Exception {
+        LocalDateTime base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        for (int thread = 0; thread < THREADS; thread++) {
+            long bookerId = bookers.get(thread).getId();
+            int offset = thread;
+            results.add(executor.submit(() -> {
+                startSignal.await();
+                int created = 0;
+                for (int i = 0; i < REQUESTS_PER_THREAD; i++) {
+                    // every thread walks over the same hourly slots with two-hour bookings, so most requests collide
+                    LocalDateTime start = base.plusHours((i * 7L + offset) % 40);
+                    try {
+                        bookingService.createBooking(bookerId, BookingDto.builder()
+                                                                         .withItemId(item.getId())
+                                                                         .withStart(start)
+                                                                         .withEnd(start.plusHours(2))
+                                                                         .build());
+                        created++;
+                    } catch (BookingOverlapException ignored) {
+                        // expected when another request took an overlapping slot first
+                    }
+                }
+                return created;
+            }));
+        }
+
+        startSignal.countDown();
+        int created = 0;
+        for (Future<Integer> result : results) {
+            created += result.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        List<Booking> bookings = findItemBookings().stream()
+                                                   .sorted(Comparator.comparing(Booking::getStart))
+                                                   .collect(Collectors.toList());
+
+        Assertions.assertTrue(created > 0);
+        Assertions.assertEquals(created, bookings.size());
+        for (int i = 1; i < bookings.size(); i++) {
+            Assertions.assertFalse(bookings.get(i).getStart().isBefore(bookings.get(i - 1).getEnd()),
+                    "Bookings " + bookings.get(i - 1).getId() + " and " + bookings.get(i).getId() + " overlap");
+        }
+    }
+
+    @Test
+    void approveOrRejectBookingShouldLetOnlyOneTransitionWinTest() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking booking = bookingRepository.save(Booking.builder()
+                                                        .withItem(item)
+                                                        .withBooker(bookers.get(0))
+                                                        .withStart(start)
+                                                        .withEnd(start.plusHours(2))
+                                                        .withStatus(BookingStatus.WAITING)
+                                                        .build());
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch startSignal = new CountDownLatch(1);
+        List<Future<BookingDto>> results = new ArrayList<>();
+
+        for (int thread = 0; thread < THREADS; thread++) {
+            boolean approved = thread % 2 == 0;
+            results.add(executor.submit(() -> {
+                startSignal.await();
+                try {
+                    return bookingService.approveOrRejectBooking(booking.getId(), approved, owner.getId());
+                } catch (BookingAlreadyApproved e) {
+                    // expected when another request has already decided on the booking
+                    return null;
+                }
+            }));
+        }
+
+        startSignal.countDown();
+        List<BookingDto> winners = new ArrayList<>();
+        for (Future<BookingDto> result : results) {
+            BookingDto bookingDto = result.get(60, TimeUnit.SECONDS);
+            if (bookingDto != null) {
+                winners.add(bookingDto);
+            }
+        }
+        executor.shutdown();
+
+        Assertions.assertEquals(1, winners.size());
+        Assertions.assertEquals(winners.get(0).getStatus(), bookingRepository.findById(booking.getId())
+                                                                             .orElseThrow()
+                                                                             .getStatus());
+    }
+
+    @Test
+    void approveOrRejectBookingsShouldNotLockOtherOwnersBookingsTest() throws Exception {
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        Booking booking = bookingRepository.save(Booking.builder()
+                                                        .withItem(item)
+                                                        .withBooker(bookers.get(0))
+                                                        .withStart(start)
+                                                        .withEnd(start.plusHours(2))
+                                                        .withStatus(BookingStatus.WAITING)
+                                                        .build());
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        CountDownLatch decided = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // another user's bulk decision stays open while the owner decides on the booking
+        Future<List<BookingDecisionDto>> foreignDecisions = executor.submit(() -> transactionTemplate.execute(status -> {
+            List<BookingDecisionDto> decisions = bookingService.approveOrRejectBookings(List.of(booking.getId()), false,
+                    bookers.get(1).getId());
+            decided.countDown();
+            awaitQuietly(release);
+            return decisions;
+        }));
+        Assertions.assertTrue(decided.await(30, TimeUnit.SECONDS));
+        Future<BookingDto> ownerDecision = executor.submit(() -> bookingService.approveOrRejectBooking(booking.getId(),
+                true, owner.getId()));
+
+        try {
+            Assertions.assertEquals(BookingStatus.APPROVED, ownerDecision.get(5, TimeUnit.SECONDS).getStatus());
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+        Assertions.assertEquals(BookingDecisionDto.Result.NOT_OWNER, foreignDecisions.get(30, TimeUnit.SECONDS)
+                                                                                      .get(0)
+                                                                                      .getResult());
+    }
+
+    /**
+     * Bookings of the contended item, which is the only item of its owner.
+     */
+    private List<Booking> findItemBookings() {
+        return bookingRepository.findBookings(BookingQuery.builder()
+                                                          .withRole(BookingQuery.Role.OWNER)
+                                                          .withUserId(owner.getId())
+                                                          .withState(BookingState.ALL)
+                                                          .build());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,240 @@
+package ru.practicum.shareit.booking.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repositories.BookingJdbcRepository;
+import ru.practicum.shareit.exceptions.TooManyBookingsException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.summary.ItemBookingSummaries;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserCache;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+@DataJpaTest(properties = {"shareit.booking.jdbc-read.booker=false", "shareit.booking.jdbc-read.owner=false"})
+@Import({BookingServiceImpl.class, BookingJdbcRepository.class, UserCache.class, ItemBookingSummaries.class})
+class BookingServiceImplTest {
+    private static final int BOOKINGS_PER_STATE = 3;
+
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private BookingService bookingService;
+
+    private Statistics statistics;
+    private User owner;
+    private User booker;
+
+    @BeforeEach
+    void setUp() {
+        statistics = em.getEntityManager()
+                       .getEntityManagerFactory()
+                       .unwrap(SessionFactory.class)
+                       .getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        owner = persistUser("Owner", "owner@gmail.com");
+        booker = persistUser("Booker", "booker@gmail.com");
+        User requester = persistUser("Requester", "requester@gmail.com");
+        ItemRequest request = em.persist(ItemRequest.builder()
+                                                    .withDescription("Need a drill")
+                                                    .withRequestor(requester)
+                                                    .build());
+
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= BOOKINGS_PER_STATE; i++) {
+            Item item = em.persist(Item.builder()
+                                       .withName("Drill " + i)
+                                       .withDescription("Simple drill")
+                                       .withAvailable(true)
+                                       .withOwner(owner)
+                                       .withRequest(request)
+                                       .build());
+            persistBooking(item, now.minusDays(10 * i + 1), now.minusDays(10 * i), BookingStatus.APPROVED);
+            persistBooking(item, now.minusHours(i), now.plusHours(i), BookingStatus.APPROVED);
+            persistBooking(item, now.plusDays(10 * i), now.plusDays(10 * i + 1), BookingStatus.WAITING);
+            persistBooking(item, now.plusDays(10 * i + 2), now.plusDays(10 * i + 3), BookingStatus.REJECTED);
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void bookingsPageShouldBeReadWithoutCountQueryTest(BookingState state) {
+        LocalDateTime now = LocalDateTime.now();
+        Slice<BookingDto> byBooker = readPage(() -> bookingService.getAllBookingsByBooker(state.name(), booker.getId(), 0, 2, now));
+        Slice<BookingDto> byOwner = readPage(() -> bookingService.getAllBookingsByOwner(state.name(), owner.getId(), 0, 2, now));
+
+        long total = bookingService.countBookingsByBooker(state.name(), booker.getId());
+        Assertions.assertEquals(total, bookingService.countBookingsByOwner(state.name(), owner.getId()));
+        Assertions.assertEquals(Math.min(2, total), byBooker.getNumberOfElements());
+        Assertions.assertEquals(total > 2, byBooker.hasNext());
+        Assertions.assertEquals(total > 2, byOwner.hasNext());
+    }
+
+    @Test
+    void bookingsPageShouldStartAtFromEvenWhenItIsNotPageAlignedTest() {
+        List<BookingDto> all = bookingService.getAllBookingsByBooker("ALL", booker.getId());
+        LocalDateTime now = LocalDateTime.now();
+
+        Slice<BookingDto> byBooker = bookingService.getAllBookingsByBooker("ALL", booker.getId(), 3, 2, now);
+        Slice<BookingDto> byOwner = bookingService.getAllBookingsByOwner("ALL", owner.getId(), 3, 2, now);
+
+        Assertions.assertEquals(all.subList(3, 5), byBooker.getContent());
+        Assertions.assertEquals(all.subList(3, 5), byOwner.getContent());
+    }
+
+    @Test
+    void cursorPagesShouldBeReadAgainstMomentOfFirstPageTest() {
+        em.flush();
+        em.clear();
+        LocalDateTime moment = LocalDateTime.now().minusDays(1);
+        Slice<BookingDto> page = bookingService.getAllBookingsByBooker("FUTURE", booker.getId(), 0, 4, moment);
+        List<BookingDto> bookings = new ArrayList<>(page.getContent());
+        while (page.hasNext()) {
+            String token = BookingCursor.of(page.getContent().get(page.getNumberOfElements() - 1), moment).encode();
+            page = bookingService.getAllBookingsByBooker("FUTURE", booker.getId(), BookingCursor.decode(token), 4);
+            bookings.addAll(page.getContent());
+        }
+
+        // bookings that started since the moment are still future ones for this list
+        Assertions.assertEquals(BOOKINGS_PER_STATE * 3, bookings.size());
+        Assertions.assertEquals(bookings.size(), bookings.stream().map(BookingDto::getId).distinct().count());
+    }
+
+    @ParameterizedTest
+    @EnumSource(BookingState.class)
+    void bookingListsShouldBeReadWithSingleStatementTest(BookingState state) {
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingDto> byBooker = countStatements(() -> bookingService.getAllBookingsByBooker(state.name(), booker.getId()));
+        List<BookingDto> byOwner = countStatements(() -> bookingService.getAllBookingsByOwner(state.name(), owner.getId()));
+        Slice<BookingDto> bookerPage = countStatements(() -> bookingService.getAllBookingsByBooker(state.name(), booker.getId(), 0, 2, now));
+        Slice<BookingDto> ownerPage = countStatements(() -> bookingService.getAllBookingsByOwner(state.name(), owner.getId(), 0, 2, now));
+        BookingCursor bookerCursor = BookingCursor.of(bookerPage.getContent().get(bookerPage.getNumberOfElements() - 1), now);
+        BookingCursor ownerCursor = BookingCursor.of(ownerPage.getContent().get(ownerPage.getNumberOfElements() - 1), now);
+        countStatements(() -> bookingService.getAllBookingsByBooker(state.name(), booker.getId(), bookerCursor, 2));
+        countStatements(() -> bookingService.getAllBookingsByOwner(state.name(), owner.getId(), ownerCursor, 2));
+
+        Assertions.assertEquals(byBooker, byOwner);
+        byBooker.forEach(booking -> {
+            Assertions.assertNotNull(booking.getItem().getName());
+            Assertions.assertEquals(booker.getId(), booking.getBooker().getId());
+        });
+    }
+
+    @Test
+    void approveOrRejectBookingsShouldReportEachBookingTest() {
+        User anotherOwner = persistUser("Another owner", "another_owner@gmail.com");
+        Item item = persistItem(owner, "Saw");
+        Item anotherItem = persistItem(anotherOwner, "Hammer");
+        LocalDateTime start = LocalDateTime.now().plusDays(50);
+        Booking first = persistBooking(item, start, start.plusHours(1), BookingStatus.WAITING);
+        Booking second = persistBooking(item, start.plusHours(2), start.plusHours(3), BookingStatus.WAITING);
+        Booking approved = persistBooking(item, start.plusHours(4), start.plusHours(5), BookingStatus.APPROVED);
+        Booking foreign = persistBooking(anotherItem, start, start.plusHours(1), BookingStatus.WAITING);
+        long missingId = foreign.getId() + 1000;
+        em.flush();
+        em.clear();
+
+        List<BookingDecisionDto> decisions = bookingService.approveOrRejectBookings(
+                List.of(first.getId(), second.getId(), approved.getId(), foreign.getId(), missingId, first.getId()),
+                true, owner.getId());
+        em.clear();
+
+        Assertions.assertEquals(List.of(decision(first, BookingDecisionDto.Result.APPROVED),
+                decision(second, BookingDecisionDto.Result.APPROVED),
+                decision(approved, BookingDecisionDto.Result.ALREADY_APPROVED),
+                decision(foreign, BookingDecisionDto.Result.NOT_OWNER),
+                BookingDecisionDto.builder()
+                                  .withBookingId(missingId)
+                                  .withResult(BookingDecisionDto.Result.NOT_FOUND)
+                                  .build()), decisions);
+        Assertions.assertEquals(BookingStatus.APPROVED, em.find(Booking.class, first.getId()).getStatus());
+        Assertions.assertEquals(BookingStatus.APPROVED, em.find(Booking.class, second.getId()).getStatus());
+        Assertions.assertEquals(BookingStatus.WAITING, em.find(Booking.class, foreign.getId()).getStatus());
+    }
+
+    @Test
+    void approveOrRejectBookingsShouldRejectTooManyBookingsTest() {
+        List<Long> bookingIds = LongStream.rangeClosed(1, 101)
+                                          .boxed()
+                                          .collect(Collectors.toList());
+
+        Assertions.assertThrows(TooManyBookingsException.class,
+                () -> bookingService.approveOrRejectBookings(bookingIds, true, owner.getId()));
+    }
+
+    private static BookingDecisionDto decision(Booking booking, BookingDecisionDto.Result result) {
+        return BookingDecisionDto.builder()
+                                 .withBookingId(booking.getId())
+                                 .withResult(result)
+                                 .build();
+    }
+
+    private <T> T countStatements(Supplier<T> read) {
+        read.get();
+        em.flush();
+        em.clear();
+        statistics.clear();
+        T result = read.get();
+        Assertions.assertEquals(1, statistics.getPrepareStatementCount());
+        return result;
+    }
+
+    private Slice<BookingDto> readPage(Supplier<Slice<BookingDto>> page) {
+        page.get();
+        em.flush();
+        em.clear();
+        statistics.clear();
+        Slice<BookingDto> result = page.get();
+        Assertions.assertEquals(1, statistics.getQueryExecutionCount(), String.join("\n", statistics.getQueries()));
+        return result;
+    }
+
+    private User persistUser(String name, String email) {
+        return em.persist(User.builder()
+                              .withName(name)
+                              .withEmail(email)
+                              .build());
+    }
+
+    private Item persistItem(User owner, String name) {
+        return em.persist(Item.builder()
+                              .withName(name)
+                              .withDescription("Simple " + name)
+                              .withAvailable(true)
+                              .withOwner(owner)
+                              .build());
+    }
+
+    private Booking persistBooking(Item item, LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return em.persist(Booking.builder()
+                                 .withItem(item)
+                                 .withBooker(booker)
+                                 .withStart(start)
+                                 .withEnd(end)
+                                 .withStatus(status)
+                                 .build());
+    }
+}
@@ -20,9 +20,11 @@ import ru.practicum.shareit.item.service.ItemServiceImpl;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.hamcrest.Matchers.is;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -65,6 +67,37 @@ class ItemControllerTest {
                .andExpect(jsonPath("$.available", is(expectedItemDto.getAvailable()), Boolean.class));
     }
 
+    @Test
+    void getItemByIdShouldAnswerNotModifiedBeforeReadingItemTest() throws Exception {
+        Mockito.when(itemService.getItemETag(1, 1))
+               .thenReturn(Optional.of("3"));
+
+        mockMvc.perform(get("/items/1")
+                       .header("X-Sharer-User-Id", "1")
+                       .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                       .accept(MediaType.APPLICATION_JSON))
+               .andExpect(status().isNotModified())
+               .andExpect(header().string(HttpHeaders.ETAG, "\"3\""));
+
+        Mockito.verify(itemService, Mockito.never()).getItemById(Mockito.anyLong(), Mockito.anyLong());
+    }
+
+    @Test
+    void getItemByIdShouldReturnItemWithETagTest() throws Exception {
+        Mockito.when(itemService.getItemETag(1, 1))
+               .thenReturn(Optional.of("4"));
+        Mockito.when(itemService.getItemById(1, 1))
+               .thenReturn(getTestItemDto(1, "Item", "Description"));
+
+        mockMvc.perform(get("/items/1")
+                       .header("X-Sharer-User-Id", "1")
+                       .header(HttpHeaders.IF_NONE_MATCH, "\"3\"")
+                       .accept(MediaType.APPLICATION_JSON))
+               .andExpect(status().isOk())
+               .andExpect(header().string(HttpHeaders.ETAG, "\"4\""))
+               .andExpect(jsonPath("$.id", is(1L), Long.class));
+    }
+
     @Test
     void getAllItemsTest() throws Exception {
         ItemDto item1 = getTestItemDto(1, "Item 1", "Description");
@@ -5,6 +5,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.UserRepository;
@@ -32,7 +34,7 @@ class CommentRepositoryTest {
     }
 
     @Test
-    void findByItemIdTest() {
+    void findLatestByItemIdTest() {
         User user = User.builder()
                         .withName("User")
                         .withEmail("user_email@gmail.com")
@@ -49,60 +51,18 @@ class CommentRepositoryTest {
 
         item = itemRepository.save(item);
 
-        Comment comment = Comment.builder()
-                                 .withText("Comment")
-                                 .withItem(item)
-                                 .withAuthor(user)
-                                 .build();
-
-        comment = commentRepository.save(comment);
-
-        List<Comment> comments = commentRepository.findByItemId(item.getId());
-        Assertions.assertEquals(1, comments.size());
-        Assertions.assertEquals(comment, comments.get(0));
-    }
-
-    @Test
-    void findByAuthorIdAndItemIdTest() {
-        User user = User.builder()
-                        .withName("User")
-                        .withEmail("user_email@gmail.com")
-                        .build();
-
-        User user2 = User.builder()
-                        .withName("User 2")
-                        .withEmail("user2_email@gmail.com")
-                        .build();
-
-        user = userRepository.save(user);
-        user2 = userRepository.save(user2);
-
-        Item item = Item.builder()
-                        .withName("Screwdriver")
-                        .withDescription("Compact screwdriver")
-                        .withOwner(user)
-                        .withAvailable(true)
-                        .build();
-
-        item = itemRepository.save(item);
-
-        Comment comment = Comment.builder()
-                                 .withText("Comment")
-                                 .withItem(item)
-                                 .withAuthor(user)
-                                 .build();
-
-        Comment comment2 = Comment.builder()
-                                 .withText("Comment 2")
-                                 .withItem(item)
-                                 .withAuthor(user2)
-                                 .build();
-
-        comment = commentRepository.save(comment);
-        comment2 = commentRepository.save(comment2);
-
-        List<Comment> comments = commentRepository.findByAuthorIdAndItemId(user2.getId(), item.getId());
-        Assertions.assertEquals(1, comments.size());
-        Assertions.assertEquals(comment2, comments.get(0));
+        for (int i = 1; i <= 3; i++) {
+            commentRepository.save(Comment.builder()
+                                          .withText("Comment " + i)
+                                          .withItem(item)
+                                          .withAuthor(user)
+                                          .build());
+        }
+
+        List<CommentView> comments = commentRepository.findLatestByItemId(item.getId(), PageRequest.of(0, 2));
+        Assertions.assertEquals(2, comments.size());
+        Assertions.assertEquals("Comment 3", comments.get(0).getText());
+        Assertions.assertEquals("Comment 2", comments.get(1).getText());
+        Assertions.assertEquals("User", comments.get(0).getAuthorName());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,128 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.repositories.ItemRepository;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+@ExtendWith(MockitoExtension.class)
+class ItemSearchIndexTest {
+    @Mock
+    private ItemRepository mockItemRepository;
+    @InjectMocks
+    private ItemSearchIndex itemSearchIndex;
+
+    @BeforeEach
+    void setUp() {
+        itemSearchIndex.rebuild();
+        itemSearchIndex.index(getTestItem(1, "Screwdriver", "Compact screwdriver", true));
+        itemSearchIndex.index(getTestItem(2, "Drill", "Cordless drill with screwdriver bits", true));
+        itemSearchIndex.index(getTestItem(3, "Hammer", "Heavy hammer", true));
+        itemSearchIndex.index(getTestItem(4, "Broken screwdriver", "Not available", false));
+    }
+
+    @Test
+    void shouldFindAvailableItemsByNameOrDescriptionIgnoringCaseTest() {
+        Assertions.assertEquals(List.of(1L, 2L), ids(itemSearchIndex.search("sCrEw", 0, 10)));
+        Assertions.assertEquals(List.of(1L), ids(itemSearchIndex.search("compact", 0, 10)));
+        Assertions.assertEquals(List.of(3L), ids(itemSearchIndex.search("hammer", 0, 10)));
+    }
+
+    @Test
+    void shouldHandleShortAndBlankQueriesTest() {
+        Assertions.assertEquals(List.of(3L), ids(itemSearchIndex.search("mm", 0, 10)));
+        Assertions.assertTrue(itemSearchIndex.search(" ", 0, 10).isEmpty());
+        Assertions.assertTrue(itemSearchIndex.search("saw", 0, 10).isEmpty());
+    }
+
+    @Test
+    void shouldPageResultsTest() {
+        Assertions.assertEquals(List.of(2L), ids(itemSearchIndex.search("screw", 1, 1)));
+        Assertions.assertEquals(List.of(1L), ids(itemSearchIndex.search("screw", 0, 1)));
+    }
+
+    @Test
+    void shouldReindexPatchedItemsTest() {
+        itemSearchIndex.index(getTestItem(1, "Saw", "Hand saw", true));
+        itemSearchIndex.index(getTestItem(2, "Drill", "Cordless drill with screwdriver bits", false));
+        itemSearchIndex.index(getTestItem(4, "Screwdriver", "Repaired", true));
+
+        Assertions.assertEquals(List.of(4L), ids(itemSearchIndex.search("screw", 0, 10)));
+        Assertions.assertEquals(List.of(1L), ids(itemSearchIndex.search("saw", 0, 10)));
+    }
+
+    @Test
+    void shouldRebuildFromRepositoryTest() {
+        Mockito.when(mockItemRepository.findAvailableByIdGreaterThan(Mockito.anyLong(), Mockito.any(Pageable.class)))
+               .thenReturn(List.of(getTestItem(5, "Ladder", "Folding ladder", true)))
+               .thenReturn(Collections.emptyList());
+
+        itemSearchIndex.rebuild();
+
+        Assertions.assertTrue(itemSearchIndex.search("screw", 0, 10).isEmpty());
+        Assertions.assertEquals(List.of(5L), ids(itemSearchIndex.search("ladder", 0, 10)));
+    }
+
+    @Test
+    void shouldRemoveDeletedItemsTest() {
+        itemSearchIndex.remove(List.of(1L, 3L));
+
+        Assertions.assertEquals(List.of(2L), ids(itemSearchIndex.search("screw", 0, 10)));
+        Assertions.assertTrue(itemSearchIndex.search("hammer", 0, 10).isEmpty());
+    }
+
+    @Test
+    void rebuildShouldKeepChangesCommittedWhileItRunsTest() {
+        Mockito.when(mockItemRepository.findAvailableByIdGreaterThan(Mockito.anyLong(), Mockito.any(Pageable.class)))
+               .thenAnswer(invocation -> {
+                   // the rebuild reads the old versions, the changes below commit before it swaps the index
+                   itemSearchIndex.index(getTestItem(1, "Saw", "Hand saw", true));
+                   itemSearchIndex.remove(List.of(3L));
+                   return List.of(getTestItem(1, "Screwdriver", "Compact screwdriver", true),
+                           getTestItem(3, "Hammer", "Heavy hammer", true));
+               });
+
+        itemSearchIndex.rebuild();
+
+        Assertions.assertEquals(List.of(1L), ids(itemSearchIndex.search("saw", 0, 10)));
+        Assertions.assertTrue(itemSearchIndex.search("screw", 0, 10).isEmpty());
+        Assertions.assertTrue(itemSearchIndex.search("hammer", 0, 10).isEmpty());
+    }
+
+    @Test
+    void shouldSearchRepositoryUntilFirstRebuildTest() {
+        ItemSearchIndex notBuiltIndex = new ItemSearchIndex(mockItemRepository);
+        Mockito.when(mockItemRepository.search("screw"))
+               .thenReturn(List.of(getTestItem(1, "Screwdriver", "Compact screwdriver", true),
+                       getTestItem(2, "Drill", "Cordless drill with screwdriver bits", true)));
+
+        Assertions.assertEquals(List.of(2L), ids(notBuiltIndex.search("screw", 1, 10)));
+    }
+
+    private List<Long> ids(List<ItemDto> items) {
+        return items.stream()
+                    .map(ItemDto::getId)
+                    .collect(Collectors.toList());
+    }
+
+    private Item getTestItem(long id, String name, String description, boolean available) {
+        return Item.builder()
+                   .withId(id)
+                   .withName(name)
+                   .withDescription(description)
+                   .withAvailable(available)
+                   .build();
+    }
+}
@@ -0,0 +1,400 @@
+package ru.practicum.shareit.item.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.exceptions.CommentNotAllowedException;
+import ru.practicum.shareit.exceptions.InvalidPatchException;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchIndex;
+import ru.practicum.shareit.item.summary.ItemBookingSummaries;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserCache;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserService;
+import ru.practicum.shareit.user.service.UserServiceImpl;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+@DataJpaTest
+@Import({ItemServiceImpl.class, ItemSearchIndex.class, UserCache.class, ItemBookingSummaries.class, UserServiceImpl.class})
+class ItemServiceImplTest {
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private ItemService itemService;
+    @Autowired
+    private ItemBookingSummaries itemBookingSummaries;
+    @Autowired
+    private UserService userService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = em.getEntityManager()
+                       .getEntityManagerFactory()
+                       .unwrap(SessionFactory.class)
+                       .getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void getAllItemsShouldUseConstantNumberOfQueriesTest() {
+        User booker = persistUser("Booker", "booker@gmail.com");
+        User requester = persistUser("Requester", "requester@gmail.com");
+        User smallOwner = persistUser("Small owner", "small_owner@gmail.com");
+        User largeOwner = persistUser("Large owner", "large_owner@gmail.com");
+
+        persistItems(smallOwner, booker, requester, 2);
+        persistItems(largeOwner, booker, requester, 20);
+
+        long smallOwnerQueries = countQueries(() -> itemService.getAllItems(smallOwner.getId()));
+        long largeOwnerQueries = countQueries(() -> itemService.getAllItems(largeOwner.getId()));
+
+        Assertions.assertEquals(smallOwnerQueries, largeOwnerQueries);
+    }
+
+    @Test
+    void getAllItemsShouldReturnOnlyOwnerItemsWithBookingsAndCommentsTest() {
+        User booker = persistUser("Booker", "booker@gmail.com");
+        User requester = persistUser("Requester", "requester@gmail.com");
+        User owner = persistUser("Owner", "owner@gmail.com");
+        User anotherOwner = persistUser("Another owner", "another_owner@gmail.com");
+
+        persistItems(owner, booker, requester, 3);
+        persistItems(anotherOwner, booker, requester, 2);
+        em.flush();
+        em.clear();
+
+        List<ItemDto> items = itemService.getAllItems(owner.getId());
+
+        Assertions.assertEquals(3, items.size());
+        items.forEach(item -> {
+            Assertions.assertNotNull(item.getLastBooking());
+            Assertions.assertNotNull(item.getNextBooking());
+            Assertions.assertEquals(booker.getId(), item.getLastBooking().getBookerId());
+            Assertions.assertTrue(item.getNextBooking().getStart().isBefore(LocalDateTime.now().plusDays(2)));
+            Assertions.assertEquals(1, item.getComments().size());
+            Assertions.assertEquals("Booker", item.getComments().get(0).getAuthorName());
+        });
+    }
+
+    @Test
+    void getItemByIdShouldUseTwoQueriesTest() {
+        User booker = persistUser("Booker", "booker@gmail.com");
+        User requester = persistUser("Requester", "requester@gmail.com");
+        User owner = persistUser("Owner", "owner@gmail.com");
+        persistItems(owner, booker, requester, 1);
+        Item item = em.persist(Item.builder()
+                                   .withName("Drill")
+                                   .withDescription("Simple drill")
+                                   .withAvailable(true)
+                                   .withOwner(owner)
+                                   .build());
+        LocalDateTime now = LocalDateTime.now();
+        for (int i = 1; i <= 5; i++) {
+            em.persist(Booking.builder()
+                              .withItem(item)
+                              .withBooker(booker)
+                              .withStart(now.minusDays(20 - i * 2))
+                              .withEnd(now.minusDays(19 - i * 2))
+                              .withStatus(BookingStatus.APPROVED)
+                              .build());
+            em.persist(Comment.builder()
+                              .withText("Comment " + i)
+                              .withItem(item)
+                              .withAuthor(booker)
+                              .build());
+        }
+        itemBookingSummaries.refresh(item.getId());
+
+        long queries = countQueries(() -> itemService.getItemById(owner.getId(), item.getId()));
+
+        Assertions.assertEquals(2, queries);
+    }
+
+    @Test
+    void getItemByIdShouldReturnBookingsOnlyToOwnerTest() {
+        User booker = persistUser("Booker", "booker@gmail.com");
+        User owner = persistUser("Owner", "owner@gmail.com");
+        Item item = em.persist(Item.builder()
+                                   .withName("Drill")
+                                   .withDescription("Simple drill")
+                                   .withAvailable(true)
+                                   .withOwner(owner)
+                                   .build());
+        LocalDateTime now = LocalDateTime.now();
+        Booking oldBooking = persistBooking(item, booker, now.minusDays(10), now.minusDays(9));
+        Booking lastBooking = persistBooking(item, booker, now.minusDays(5), now.minusDays(4));
+        Booking nextBooking = persistBooking(item, booker, now.plusDays(1), now.plusDays(2));
+        for (int i = 1; i <= 3; i++) {
+            em.persist(Comment.builder()
+                              .withText("Comment " + i)
+                              .withItem(item)
+                              .withAuthor(booker)
+                              .build());
+        }
+        em.flush();
+        em.clear();
+
+        ItemDto ownerView = itemService.getItemById(owner.getId(), item.getId());
+        ItemDto bookerView = itemService.getItemById(booker.getId(), item.getId());
+
+        Assertions.assertNotEquals(oldBooking.getId(), ownerView.getLastBooking().getId());
+        Assertions.assertEquals(lastBooking.getId(), ownerView.getLastBooking().getId());
+        Assertions.assertEquals(nextBooking.getId(), ownerView.getNextBooking().getId());
+        Assertions.assertEquals(booker.getId(), ownerView.getNextBooking().getBookerId());
+        Assertions.assertEquals(List.of("Comment 1", "Comment 2", "Comment 3"), ownerView.getComments()
+                                                                                     .stream()
+                                                                                     .map(ItemDto.Comment::getText)
+                                                                                     .collect(Collectors.toList()));
+        Assertions.assertEquals("Booker", ownerView.getComments().get(0).getAuthorName());
+        Assertions.assertNull(bookerView.getLastBooking());
+        Assertions.assertNull(bookerView.getNextBooking());
+        Assertions.assertEquals(3, bookerView.getComments().size());
+    }
+
+    @Test
+    void deleteUserShouldDropBookerBookingsFromOwnerViewTest() {
+        User owner = persistUser("Owner", "owner@gmail.com");
+        User booker = persistUser("Booker", "booker@gmail.com");
+        User anotherBooker = persistUser("Another booker", "another_booker@gmail.com");
+        Item item = persistItem(owner, "Drill");
+        LocalDateTime now = LocalDateTime.now();
+        Booking earlierBooking = persistBooking(item, anotherBooker, now.minusDays(10), now.minusDays(9));
+        Booking lastBooking = persistBooking(item, booker, now.minusDays(5), now.minusDays(4));
+        em.flush();
+        em.clear();
+        itemBookingSummaries.refresh(item.getId());
+
+        Assertions.assertEquals(lastBooking.getId(), itemService.getItemById(owner.getId(), item.getId())
+                                                                .getLastBooking()
+                                                                .getId());
+
+        userService.deleteUser(booker.getId());
+        em.flush();
+        em.clear();
+
+        ItemDto ownerView = itemService.getItemById(owner.getId(), item.getId());
+        Assertions.assertEquals(earlierBooking.getId(), ownerView.getLastBooking().getId());
+        Assertions.assertEquals(anotherBooker.getId(), ownerView.getLastBooking().getBookerId());
+        Assertions.assertNull(ownerView.getNextBooking());
+    }
+
+    @Test
+    void createCommentShouldNotDependOnAuthorHistoryTest() {
+        User owner = persistUser("Owner", "owner@gmail.com");
+        User casualAuthor = persistUser("Casual author", "casual_author@gmail.com");
+        User heavyAuthor = persistUser("Heavy author", "heavy_author@gmail.com");
+        Item item = persistItem(owner, "Drill");
+        Item otherItem = persistItem(owner, "Saw");
+        LocalDateTime now = LocalDateTime.now();
+        persistBooking(item, casualAuthor, now.minusDays(2), now.minusDays(1));
+        persistBooking(item, heavyAuthor, now.minusDays(2), now.minusDays(1));
+        for (int i = 0; i < 50; i++) {
+            persistBooking(otherItem, heavyAuthor, now.minusDays(i + 3), now.minusDays(i + 2));
+        }
+
+        long casualAuthorQueries = countQueries(() -> itemService.createComment(casualAuthor.getId(), item.getId(),
+                CommentDto.builder().withText("Nice").build()));
+        long heavyAuthorQueries = countQueries(() -> itemService.createComment(heavyAuthor.getId(), item.getId(),
+                CommentDto.builder().withText("Nice").build()));
+
+        Assertions.assertEquals(casualAuthorQueries, heavyAuthorQueries);
+        Assertions.assertEquals(0, statistics.getEntityStatistics(Booking.class.getName()).getLoadCount());
+    }
+
+    @Test
+    void createCommentShouldRequireFinishedBookingOfItemTest() {
+        User owner = persistUser("Owner", "owner@gmail.com");
+        User author = persistUser("Author", "author@gmail.com");
+        Item item = persistItem(owner, "Drill");
+        Item otherItem = persistItem(owner, "Saw");
+        LocalDateTime now = LocalDateTime.now();
+        persistBooking(item, author, now.minusDays(1), now.plusDays(1));
+        persistBooking(otherItem, author, now.minusDays(2), now.minusDays(1));
+        em.flush();
+        em.clear();
+
+        Assertions.assertThrows(CommentNotAllowedException.class, () -> itemService.createComment(author.getId(),
+                item.getId(), CommentDto.builder().withText("Nice").build()));
+    }
+
+    @Test
+    void patchItemShouldNotUpdateUnchangedItemTest() {
+        User owner = persistUser("Owner", "owner@gmail.com");
+        Item item = em.persist(Item.builder()
+                                   .withName("Drill")
+                                   .withDescription("Simple drill")
+                                   .withAvailable(true)
+                                   .withOwner(owner)
+                                   .build());
+        em.flush();
+        em.clear();
+        statistics.clear();
+
+        ItemDto patchedItem = itemService.patchItem(item.getId(), owner.getId(), Map.of("name", "Drill", "available", "true"));
+        em.flush();
+
+        Assertions.assertEquals("Drill", patchedItem.getName());
+        Assertions.assertEquals(0, statistics.getEntityUpdateCount());
+    }
+
+    @Test
+    void getItemETagShouldChangeWithItemViewTest() {
+        User owner = persistUser("Owner", "owner@gmail.com");
+        User booker = persistUser("Booker", "booker@gmail.com");
+        Item item = persistItem(owner, "Drill");
+        em.flush();
+        em.clear();
+
+        Optional<String> initialETag = itemService.getItemETag(booker.getId(), item.getId());
+        Optional<String> ownerETagWithoutSummary = itemService.getItemETag(owner.getId(), item.getId());
+        itemService.patchItem(item.getId(), owner.getId(), Map.of("description", "Cordless drill"));
+        Optional<String> patchedETag = itemService.getItemETag(booker.getId(), item.getId());
+        itemBookingSummaries.refresh(item.getId());
+
+        Assertions.assertTrue(initialETag.isPresent());
+        Assertions.assertTrue(ownerETagWithoutSummary.isEmpty());
+        Assertions.assertTrue(patchedETag.isPresent());
+        Assertions.assertNotEquals(initialETag, patchedETag);
+        Assertions.assertTrue(itemService.getItemETag(owner.getId(), item.getId()).isPresent());
+        Assertions.assertNotEquals(itemService.getItemETag(booker.getId(), item.getId()),
+                itemService.getItemETag(owner.getId(), item.getId()));
+        Assertions.assertTrue(itemService.getItemETag(booker.getId(), -1).isEmpty());
+    }
+
+    @Test
+    void getItemETagShouldChangeWhenBookerIsDeletedTest() {
+        User owner = persistUser("Owner", "owner@gmail.com");
+        User booker = persistUser("Booker", "booker@gmail.com");
+        Item item = persistItem(owner, "Drill");
+        LocalDateTime now = LocalDateTime.now();
+        persistBooking(item, booker, now.minusDays(5), now.minusDays(4));
+        em.flush();
+        em.clear();
+        itemBookingSummaries.refresh(item.getId());
+        Optional<String> ownerETag = itemService.getItemETag(owner.getId(), item.getId());
+
+        userService.deleteUser(booker.getId());
+
+        Assertions.assertTrue(ownerETag.isPresent());
+        Assertions.assertNotEquals(ownerETag, itemService.getItemETag(owner.getId(), item.getId()));
+    }
+
+    @Test
+    void patchItemShouldRejectOwnerChangeTest() {
+        User owner = persistUser("Owner", "owner@gmail.com");
+        User anotherUser = persistUser("Another user", "another_user@gmail.com");
+        Item item = em.persist(Item.builder()
+                                   .withName("Drill")
+                                   .withDescription("Simple drill")
+                                   .withAvailable(true)
+                                   .withOwner(owner)
+                                   .build());
+
+        Assertions.assertThrows(InvalidPatchException.class, () -> itemService.patchItem(item.getId(), owner.getId(),
+                Map.of("owner", Map.of("id", anotherUser.getId()))));
+    }
+
+    private long countQueries(Runnable action) {
+        em.flush();
+        em.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User persistUser(String name, String email) {
+        return em.persist(User.builder()
+                              .withName(name)
+                              .withEmail(email)
+                              .build());
+    }
+
+    private Item persistItem(User owner, String name) {
+        return em.persist(Item.builder()
+                              .withName(name)
+                              .withDescription("Simple " + name)
+                              .withAvailable(true)
+                              .withOwner(owner)
+                              .build());
+    }
+
+    private Booking persistBooking(Item item, User booker, LocalDateTime start, LocalDateTime end) {
+        return em.persist(Booking.builder()
+                                 .withItem(item)
+                                 .withBooker(booker)
+                                 .withStart(start)
+                                 .withEnd(end)
+                                 .withStatus(BookingStatus.APPROVED)
+                                 .build());
+    }
+
+    private void persistItems(User owner, User booker, User requester, int count) {
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < count; i++) {
+            ItemRequest request = em.persist(ItemRequest.builder()
+                                                        .withDescription("Request " + i)
+                                                        .withRequestor(requester)
+                                                        .build());
+
+            Item item = em.persist(Item.builder()
+                                       .withName("Item " + i)
+                                       .withDescription("Description " + i)
+                                       .withAvailable(true)
+                                       .withOwner(owner)
+                                       .withRequest(request)
+                                       .build());
+
+            em.persist(Booking.builder()
+                              .withItem(item)
+                              .withBooker(booker)
+                              .withStart(now.minusDays(2))
+                              .withEnd(now.minusDays(1))
+                              .withStatus(BookingStatus.APPROVED)
+                              .build());
+
+            em.persist(Booking.builder()
+                              .withItem(item)
+                              .withBooker(booker)
+                              .withStart(now.plusDays(1))
+                              .withEnd(now.plusDays(2))
+                              .withStatus(BookingStatus.APPROVED)
+                              .build());
+
+            em.persist(Booking.builder()
+                              .withItem(item)
+                              .withBooker(booker)
+                              .withStart(now.plusDays(3))
+                              .withEnd(now.plusDays(4))
+                              .withStatus(BookingStatus.WAITING)
+                              .build());
+
+            em.persist(Comment.builder()
+                              .withText("Comment " + i)
+                              .withItem(item)
+                              .withAuthor(booker)
+                              .build());
+
+            itemBookingSummaries.refresh(item.getId());
+        }
+    }
+}
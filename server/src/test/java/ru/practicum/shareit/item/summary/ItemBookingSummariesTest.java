@@ -0,0 +1,143 @@
+package ru.practicum.shareit.item.summary;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.repositories.BookingJdbcRepository;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingServiceImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.model.ItemBookingSummary;
+import ru.practicum.shareit.item.repositories.ItemBookingSummaryRepository;
+import ru.practicum.shareit.user.UserCache;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+@DataJpaTest
+@Import({ItemBookingSummaries.class, BookingServiceImpl.class, BookingJdbcRepository.class, UserCache.class})
+class ItemBookingSummariesTest {
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private ItemBookingSummaries itemBookingSummaries;
+    @Autowired
+    private ItemBookingSummaryRepository summaryRepository;
+    @Autowired
+    private BookingService bookingService;
+
+    private User owner;
+    private User booker;
+    private Item item;
+    private LocalDateTime now;
+
+    @BeforeEach
+    void setUp() {
+        owner = em.persist(User.builder()
+                               .withName("Owner")
+                               .withEmail("owner@gmail.com")
+                               .build());
+        booker = em.persist(User.builder()
+                                .withName("Booker")
+                                .withEmail("booker@gmail.com")
+                                .build());
+        item = em.persist(Item.builder()
+                              .withName("Drill")
+                              .withDescription("Simple drill")
+                              .withAvailable(true)
+                              .withOwner(owner)
+                              .build());
+        itemBookingSummaries.create(item.getId());
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @Test
+    void refreshShouldSummarizeApprovedBookingsTest() {
+        Booking last = persistBooking(now.minusDays(3), now.minusDays(2), BookingStatus.APPROVED);
+        persistBooking(now.minusDays(5), now.minusDays(4), BookingStatus.APPROVED);
+        persistBooking(now.minusDays(1), now.minusHours(1), BookingStatus.REJECTED);
+        Booking next = persistBooking(now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED);
+        persistBooking(now.plusHours(1), now.plusHours(2), BookingStatus.WAITING);
+
+        ItemBookingSummary summary = itemBookingSummaries.refresh(item.getId());
+
+        Assertions.assertEquals(last.getId(), summary.getLastBookingId());
+        Assertions.assertEquals(booker.getId(), summary.getLastBookerId());
+        Assertions.assertEquals(next.getId(), summary.getNextBookingId());
+        Assertions.assertEquals(next.getStart(), summary.getNextBookingStart());
+        Assertions.assertEquals(5, summary.getBookingCount());
+        Assertions.assertEquals(next.getStart(), summary.getRefreshAt());
+    }
+
+    @Test
+    void sweepShouldRollSummaryForwardTest() {
+        Booking first = persistBooking(now.plusDays(1), now.plusDays(2), BookingStatus.APPROVED);
+        Booking second = persistBooking(now.plusDays(3), now.plusDays(4), BookingStatus.APPROVED);
+        itemBookingSummaries.refresh(item.getId());
+
+        Assertions.assertEquals(0, itemBookingSummaries.sweep(now));
+        Assertions.assertEquals(1, itemBookingSummaries.sweep(now.plusDays(1).plusHours(1)));
+
+        ItemBookingSummary current = summaryRepository.findById(item.getId()).orElseThrow();
+        Assertions.assertNull(current.getLastBookingId());
+        Assertions.assertEquals(second.getId(), current.getNextBookingId());
+        Assertions.assertEquals(first.getEnd(), current.getRefreshAt());
+
+        Assertions.assertEquals(1, itemBookingSummaries.sweep(now.plusDays(2).plusHours(1)));
+
+        ItemBookingSummary finished = summaryRepository.findById(item.getId()).orElseThrow();
+        Assertions.assertEquals(first.getId(), finished.getLastBookingId());
+        Assertions.assertEquals(second.getId(), finished.getNextBookingId());
+        Assertions.assertEquals(second.getStart(), finished.getRefreshAt());
+    }
+
+    @Test
+    void bookingChangesShouldRefreshSummaryTest() {
+        BookingDto booking = bookingService.createBooking(booker.getId(), BookingDto.builder()
+                                                                                  .withItemId(item.getId())
+                                                                                  .withStart(now.plusDays(1))
+                                                                                  .withEnd(now.plusDays(2))
+                                                                                  .build());
+
+        ItemBookingSummary waiting = summaryRepository.findById(item.getId()).orElseThrow();
+        Assertions.assertEquals(1, waiting.getBookingCount());
+        Assertions.assertNull(waiting.getNextBookingId());
+
+        bookingService.approveOrRejectBooking(booking.getId(), true, owner.getId());
+
+        ItemBookingSummary approved = summaryRepository.findById(item.getId()).orElseThrow();
+        Assertions.assertEquals(booking.getId(), approved.getNextBookingId());
+    }
+
+    @Test
+    void findByItemIdsShouldRecomputeStaleSummaryTest() {
+        Booking booking = persistBooking(now.minusDays(2), now.minusDays(1), BookingStatus.APPROVED);
+        ItemBookingSummary stale = summaryRepository.findById(item.getId()).orElseThrow();
+        stale.setRefreshAt(now.minusDays(1));
+        em.flush();
+
+        ItemBookingSummary summary = itemBookingSummaries.findByItemIds(List.of(item.getId())).get(item.getId());
+
+        Assertions.assertEquals(booking.getId(), summary.getLastBookingId());
+        Assertions.assertNull(summary.getRefreshAt());
+    }
+
+    private Booking persistBooking(LocalDateTime start, LocalDateTime end, BookingStatus status) {
+        return em.persist(Booking.builder()
+                                 .withItem(item)
+                                 .withBooker(booker)
+                                 .withStart(start)
+                                 .withEnd(end)
+                                 .withStatus(status)
+                                 .build());
+    }
+}
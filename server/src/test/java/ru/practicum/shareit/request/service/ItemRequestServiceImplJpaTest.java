@@ -0,0 +1,128 @@
+package ru.practicum.shareit.request.service;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.model.ItemRequest;
+import ru.practicum.shareit.user.UserCache;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.List;
+
+@DataJpaTest
+@Import({ItemRequestServiceImpl.class, UserCache.class})
+class ItemRequestServiceImplJpaTest {
+    @Autowired
+    private TestEntityManager em;
+    @Autowired
+    private ItemRequestService itemRequestService;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = em.getEntityManager()
+                       .getEntityManagerFactory()
+                       .unwrap(SessionFactory.class)
+                       .getStatistics();
+        statistics.setStatisticsEnabled(true);
+    }
+
+    @Test
+    void getAllItemRequestsShouldUseConstantNumberOfQueriesTest() {
+        User viewer = persistUser("Viewer", "viewer@gmail.com");
+        User owner = persistUser("Owner", "owner@gmail.com");
+
+        persistRequests(owner, 2);
+        long fewRequestsQueries = countQueries(() -> itemRequestService.getAllItemRequests(viewer.getId()));
+
+        persistRequests(owner, 30);
+        long manyRequestsQueries = countQueries(() -> itemRequestService.getAllItemRequests(viewer.getId()));
+
+        Assertions.assertEquals(fewRequestsQueries, manyRequestsQueries);
+        Assertions.assertEquals(2, manyRequestsQueries);
+    }
+
+    @Test
+    void getItemRequestsByUserIdShouldUseConstantNumberOfQueriesTest() {
+        User owner = persistUser("Owner", "owner@gmail.com");
+
+        User smallRequester = persistRequests(owner, 2);
+        User largeRequester = persistRequests(owner, 30);
+
+        long smallRequesterQueries = countQueries(() -> itemRequestService.getItemRequestsByUserId(smallRequester.getId()));
+        long largeRequesterQueries = countQueries(() -> itemRequestService.getItemRequestsByUserId(largeRequester.getId()));
+
+        Assertions.assertEquals(smallRequesterQueries, largeRequesterQueries);
+    }
+
+    @Test
+    void getAllItemRequestsShouldReturnItemsOfEachRequestTest() {
+        User viewer = persistUser("Viewer", "viewer@gmail.com");
+        User owner = persistUser("Owner", "owner@gmail.com");
+        User requester = persistRequests(owner, 3);
+        ItemRequest requestWithoutItems = em.persist(ItemRequest.builder()
+                                                                .withDescription("Request without items")
+                                                                .withRequestor(requester)
+                                                                .build());
+        em.flush();
+        em.clear();
+
+        List<ItemRequestDto> requests = itemRequestService.getAllItemRequests(viewer.getId(), 0, 10);
+
+        Assertions.assertEquals(4, requests.size());
+        requests.forEach(request -> {
+            if (request.getId() == requestWithoutItems.getId()) {
+                Assertions.assertTrue(request.getItems().isEmpty());
+            } else {
+                Assertions.assertEquals(2, request.getItems().size());
+                request.getItems().forEach(item -> Assertions.assertEquals(request.getId(), item.getRequestId()));
+            }
+        });
+    }
+
+    private long countQueries(Runnable action) {
+        em.flush();
+        em.clear();
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private User persistUser(String name, String email) {
+        return em.persist(User.builder()
+                              .withName(name)
+                              .withEmail(email)
+                              .build());
+    }
+
+    private User persistRequests(User owner, int count) {
+        User requester = persistUser("Requester " + count, "requester_" + count + "@gmail.com");
+
+        for (int i = 0; i < count; i++) {
+            ItemRequest request = em.persist(ItemRequest.builder()
+                                                        .withDescription("Request " + i)
+                                                        .withRequestor(requester)
+                                                        .build());
+
+            for (int j = 0; j < 2; j++) {
+                em.persist(Item.builder()
+                               .withName("Item " + i + "." + j)
+                               .withDescription("Description " + i + "." + j)
+                               .withAvailable(true)
+                               .withOwner(owner)
+                               .withRequest(request)
+                               .build());
+            }
+        }
+        return requester;
+    }
+}
@@ -14,7 +14,7 @@ import ru.practicum.shareit.item.repositories.ItemRepository;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.request.repositories.ItemRequestRepository;
-import ru.practicum.shareit.user.UserRepository;
+import ru.practicum.shareit.user.UserCache;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
@@ -27,7 +27,7 @@ import static java.lang.String.format;
 @ExtendWith(MockitoExtension.class)
 class ItemRequestServiceImplTest {
     @Mock
-    private UserRepository mockUserRepository;
+    private UserCache mockUserCache;
     @Mock
     private ItemRepository mockItemRepository;
     @Mock
@@ -38,7 +38,7 @@ class ItemRequestServiceImplTest {
 
     @Test
     void createItemRequestShouldThrowExceptionWhenUserDoesNotExistTest() {
-        Mockito.when(mockUserRepository.findById(Mockito.anyLong()))
+        Mockito.when(mockUserCache.findById(Mockito.anyLong()))
                .thenThrow(new UserNotFoundException(format("User with userId=%s is not found", 1)));
 
         ItemRequestDto itemRequestDto = getTestItemRequestDto();
@@ -54,7 +54,7 @@ class ItemRequestServiceImplTest {
         LocalDateTime time = LocalDateTime.now();
         User requester = getTestUser(1);
 
-        Mockito.when(mockUserRepository.findById(Mockito.anyLong()))
+        Mockito.when(mockUserCache.findById(Mockito.anyLong()))
                .thenReturn(Optional.of(requester));
 
         ItemRequestDto requestDto = getTestItemRequestDto();
@@ -80,7 +80,7 @@ class ItemRequestServiceImplTest {
         LocalDateTime time = LocalDateTime.now();
         User requester = getTestUser(1);
 
-        Mockito.when(mockUserRepository.findById(Mockito.anyLong()))
+        Mockito.when(mockUserCache.findById(Mockito.anyLong()))
                .thenReturn(Optional.of(requester));
 
         ItemRequest itemRequest = getTestItemRequestWithoutItems(1, time, requester);
@@ -110,7 +110,7 @@ class ItemRequestServiceImplTest {
         LocalDateTime time = LocalDateTime.now();
         User requester = getTestUser(requesterId);
 
-        Mockito.when(mockUserRepository.findById(Mockito.anyLong()))
+        Mockito.when(mockUserCache.findById(Mockito.anyLong()))
                .thenReturn(Optional.of(requester));
 
         ItemRequest itemRequest = getTestItemRequestWithoutItems(itemRequestId, time, requester);
@@ -157,7 +157,7 @@ class ItemRequestServiceImplTest {
         long userId = 1;
         long itemRequestId = 1;
 
-        Mockito.when(mockUserRepository.findById(Mockito.anyLong()))
+        Mockito.when(mockUserCache.findById(Mockito.anyLong()))
                .thenThrow(new UserNotFoundException(format("User with userId=%s is not found", userId)));
 
         Exception exception = Assertions.assertThrows(UserNotFoundException.class,
@@ -173,7 +173,7 @@ class ItemRequestServiceImplTest {
 
         User user = getTestUser(userId);
 
-        Mockito.when(mockUserRepository.findById(Mockito.anyLong()))
+        Mockito.when(mockUserCache.findById(Mockito.anyLong()))
                .thenReturn(Optional.of(user));
 
         Mockito.when(mockItemRequestRepository.findById(Mockito.anyLong()))
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheTest {
+    @Mock
+    private UserRepository mockUserRepository;
+    private UserCache userCache;
+
+    @BeforeEach
+    void setUp() {
+        userCache = new UserCache(mockUserRepository, 100, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void findByIdShouldLoadUserOnceTest() {
+        Mockito.when(mockUserRepository.findById(1L))
+               .thenReturn(Optional.of(getTestUser(1)));
+
+        Optional<User> first = userCache.findById(1);
+        Optional<User> second = userCache.findById(1);
+
+        Assertions.assertTrue(first.isPresent());
+        Assertions.assertTrue(second.isPresent());
+        Assertions.assertEquals("Test User", second.get().getName());
+        Assertions.assertNotSame(first.get(), second.get());
+        Mockito.verify(mockUserRepository, Mockito.times(1)).findById(1L);
+    }
+
+    @Test
+    void findByIdShouldNotCacheMissingUserTest() {
+        Mockito.when(mockUserRepository.findById(1L))
+               .thenReturn(Optional.empty(), Optional.of(getTestUser(1)));
+
+        Assertions.assertTrue(userCache.findById(1).isEmpty());
+        Assertions.assertTrue(userCache.findById(1).isPresent());
+    }
+
+    @Test
+    void evictShouldReloadUserTest() {
+        User patchedUser = getTestUser(1);
+        patchedUser.setName("Patched User");
+
+        Mockito.when(mockUserRepository.findById(1L))
+               .thenReturn(Optional.of(getTestUser(1)), Optional.of(patchedUser));
+
+        userCache.findById(1);
+        userCache.evict(1);
+
+        Assertions.assertEquals("Patched User", userCache.findById(1).orElseThrow().getName());
+    }
+
+    @Test
+    void findByIdShouldNotCacheUserDeletedWhileLoadingTest() throws Exception {
+        CountDownLatch loaded = new CountDownLatch(1);
+        CountDownLatch deleted = new CountDownLatch(1);
+        Mockito.when(mockUserRepository.findById(1L))
+               .thenAnswer(invocation -> {
+                   loaded.countDown();
+                   deleted.await(10, TimeUnit.SECONDS);
+                   return Optional.of(getTestUser(1));
+               })
+               .thenReturn(Optional.empty());
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        // the read loads the row before the delete commits and finishes after the delete has evicted the user
+        Future<Optional<User>> read = executor.submit(() -> userCache.findById(1));
+        Assertions.assertTrue(loaded.await(10, TimeUnit.SECONDS));
+        userCache.evict(1);
+        deleted.countDown();
+        read.get(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        Assertions.assertTrue(userCache.findById(1).isEmpty());
+    }
+
+    @Test
+    void findByIdShouldNotExposeCachedInstanceTest() {
+        Mockito.when(mockUserRepository.findById(1L))
+               .thenReturn(Optional.of(getTestUser(1)));
+
+        userCache.findById(1).orElseThrow().setName("Changed");
+
+        Assertions.assertEquals("Test User", userCache.findById(1).orElseThrow().getName());
+    }
+
+    private User getTestUser(long id) {
+        return User.builder()
+                   .withId(id)
+                   .withName("Test User")
+                   .withEmail("test@gmail.com")
+                   .build();
+    }
+}
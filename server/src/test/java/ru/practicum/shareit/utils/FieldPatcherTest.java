@@ -0,0 +1,82 @@
+package ru.practicum.shareit.utils;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exceptions.InvalidPatchException;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.HashMap;
+import java.util.Map;
+
+class FieldPatcherTest {
+    private final FieldPatcher<Item> patcher = FieldPatcher.<Item>builder()
+            .readOnly("id", Long.class, Item::getId)
+            .field("name", String.class, Item::getName, Item::setName,
+                    name -> !name.isBlank(), "must not be blank")
+            .field("available", Boolean.class, Item::getAvailable, Item::setAvailable)
+            .build();
+
+    @Test
+    void applyShouldSetChangedFieldsTest() {
+        Item item = getTestItem();
+
+        boolean changed = patcher.apply(item, Map.of("name", "Drill+", "available", "false"));
+
+        Assertions.assertTrue(changed);
+        Assertions.assertEquals("Drill+", item.getName());
+        Assertions.assertEquals(false, item.getAvailable());
+    }
+
+    @Test
+    void applyShouldReportUnchangedFieldsTest() {
+        Item item = getTestItem();
+
+        Assertions.assertFalse(patcher.apply(item, Map.of("id", 1, "name", "Drill", "available", true)));
+    }
+
+    @Test
+    void applyShouldRejectUnknownFieldTest() {
+        Item item = getTestItem();
+
+        Assertions.assertThrows(InvalidPatchException.class,
+                () -> patcher.apply(item, Map.of("owner", Map.of("id", 2))));
+    }
+
+    @Test
+    void applyShouldRejectChangeOfReadOnlyFieldTest() {
+        Item item = getTestItem();
+
+        Assertions.assertThrows(InvalidPatchException.class, () -> patcher.apply(item, Map.of("id", 2)));
+    }
+
+    @Test
+    void applyShouldNotChangeAnythingWhenOneFieldIsInvalidTest() {
+        Item item = getTestItem();
+        Map<String, Object> patch = new HashMap<>();
+        patch.put("name", "Drill+");
+        patch.put("available", null);
+
+        Assertions.assertThrows(InvalidPatchException.class, () -> patcher.apply(item, patch));
+        Assertions.assertEquals("Drill", item.getName());
+    }
+
+    @Test
+    void applyShouldRejectValueOfWrongTypeOrConstraintTest() {
+        Item item = getTestItem();
+
+        Assertions.assertThrows(InvalidPatchException.class, () -> patcher.apply(item, Map.of("available", "yes")));
+        Assertions.assertThrows(InvalidPatchException.class, () -> patcher.apply(item, Map.of("name", 42)));
+        Assertions.assertThrows(InvalidPatchException.class, () -> patcher.apply(item, Map.of("name", " ")));
+    }
+
+    private Item getTestItem() {
+        return Item.builder()
+                   .withId(1)
+                   .withName("Drill")
+                   .withDescription("Simple drill")
+                   .withAvailable(true)
+                   .withOwner(User.builder().withId(1).build())
+                   .build();
+    }
+}